@@ -0,0 +1,68 @@
+package com.cargopro.tms;
+
+import com.cargopro.CargoproServiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The full application, without a web server, on an embedded PostgreSQL server, for benchmarks of the
+ * service and repository layers against a real database. Scheduled jobs are pushed out of the run,
+ * as in PostgresIntegrationTest.
+ */
+public final class BenchmarkApplication implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkApplication(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    /**
+     * Starts a fresh database and the application.
+     *
+     * @param properties Additional application properties ("key=value"), e.g. to switch a feature off.
+     */
+    public static BenchmarkApplication start(String... properties) {
+        EmbeddedPostgres postgres;
+        try {
+            postgres = EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+        List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "tms.expiry.initial-delay-ms=3600000",
+                "tms.allocation.reconcile-initial-delay-ms=3600000",
+                "tms.search.refresh-interval-ms=3600000"));
+        all.addAll(List.of(properties));
+        // Passed as command line arguments so that they take precedence over application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CargoproServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(all.stream().map(property -> "--" + property).toArray(String[]::new));
+        return new BenchmarkApplication(postgres, context);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
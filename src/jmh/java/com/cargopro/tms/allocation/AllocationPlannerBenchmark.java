@@ -0,0 +1,76 @@
+package com.cargopro.tms.allocation;
+
+import com.cargopro.tms.dto.BookingRequest;
+import com.cargopro.tms.entity.Bid;
+import com.cargopro.tms.entity.BidStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning latency of an automatic allocation: 500 pending bids (1 to 5 trucks each) from 250
+ * transporters with 1 to 10 available trucks each, filling a load that needs 100 trucks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationPlannerBenchmark {
+
+    private static final int BIDS = 500;
+    private static final int TRANSPORTERS = 250;
+    private static final int TRUCKS_NEEDED = 100;
+
+    @Param({"SCORE", "COST"})
+    private AllocationObjective objective;
+
+    private List<Bid> pendingBids;
+    private Map<UUID, Integer> availableTrucks;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<UUID> transporterIds = new ArrayList<>(TRANSPORTERS);
+        availableTrucks = new HashMap<>();
+        for (int t = 0; t < TRANSPORTERS; t++) {
+            UUID transporterId = new UUID(random.nextLong(), random.nextLong());
+            transporterIds.add(transporterId);
+            availableTrucks.put(transporterId, 1 + random.nextInt(10));
+        }
+        pendingBids = new ArrayList<>(BIDS);
+        for (int b = 0; b < BIDS; b++) {
+            Bid bid = new Bid();
+            bid.setBidId(new UUID(random.nextLong(), random.nextLong()));
+            bid.setTransporterId(transporterIds.get(b % TRANSPORTERS));
+            bid.setProposedRate(500 + random.nextInt(4500));
+            bid.setTrucksOffered(1 + random.nextInt(5));
+            bid.setStatus(BidStatus.PENDING);
+            bid.setScore(random.nextDouble());
+            pendingBids.add(bid);
+        }
+    }
+
+    @Benchmark
+    public List<BookingRequest> plan() {
+        return AllocationPlanner.plan(pendingBids, availableTrucks, TRUCKS_NEEDED, objective);
+    }
+}
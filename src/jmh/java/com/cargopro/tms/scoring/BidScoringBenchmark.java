@@ -0,0 +1,103 @@
+package com.cargopro.tms.scoring;
+
+import com.cargopro.tms.dto.BidResponse;
+import com.cargopro.tms.entity.BidStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the original best-bids ranking (stream, boxed Double score, Comparator)
+ * with the primitive batch path (BidScorer.scoreAll over double[]).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BidScoringBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int bids;
+
+    private final BidScorer scorer = WeightedBidScorer.BALANCED;
+
+    private List<BidResponse> pendingBids;
+    private double[] proposedRates;
+    private double[] ratings;
+    private double[] scores;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        proposedRates = new double[bids];
+        ratings = new double[bids];
+        scores = new double[bids];
+        UUID loadId = UUID.randomUUID();
+        Timestamp submittedAt = new Timestamp(System.currentTimeMillis());
+        pendingBids = IntStream.range(0, bids)
+                .mapToObj(i -> {
+                    proposedRates[i] = 500 + random.nextInt(4500);
+                    ratings[i] = 1 + random.nextInt(5);
+                    return new BidResponse(UUID.randomUUID(), loadId, UUID.randomUUID(), proposedRates[i], 1,
+                            BidStatus.PENDING, submittedAt, null);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The ranking LoadServiceImpl.getBestBids used to do: score each bid into a boxed Double and sort with a Comparator.
+     */
+    @Benchmark
+    public List<BidResponse> boxedStreamRanking() {
+        return IntStream.range(0, bids)
+                .mapToObj(i -> {
+                    BidResponse bid = pendingBids.get(i);
+                    double rateScore = (1.0 / bid.proposedRate()) * 0.7;
+                    double ratingScore = (ratings[i] / 5.0) * 0.3;
+                    return new BidResponse(bid.bidId(), bid.loadId(), bid.transporterId(), bid.proposedRate(),
+                            bid.trucksOffered(), bid.status(), bid.submittedAt(), rateScore + ratingScore);
+                })
+                .sorted(Comparator.comparing(BidResponse::score).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Batch scoring alone, as BidRescoringJob does before storing the scores.
+     */
+    @Benchmark
+    public double[] primitiveBatchScoring() {
+        scorer.scoreAll(proposedRates, ratings, scores);
+        return scores;
+    }
+
+    /**
+     * Batch scoring followed by a primitive sort of the scores, the counterpart of boxedStreamRanking.
+     */
+    @Benchmark
+    public double[] primitiveBatchRanking() {
+        double[] ranked = new double[bids];
+        scorer.scoreAll(proposedRates, ratings, ranked);
+        Arrays.sort(ranked);
+        return ranked;
+    }
+}
@@ -0,0 +1,94 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.BenchmarkApplication;
+import com.cargopro.tms.allocation.AllocationObjective;
+import com.cargopro.tms.dto.BatchBookingResponse;
+import com.cargopro.tms.dto.LoadRequest;
+import com.cargopro.tms.entity.WeightUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of POST /load/{loadId}/auto-allocate: a fresh load needing 100 trucks with
+ * 500 pending bids (1 to 5 trucks each) from 250 transporters, filled in one call. The call reads
+ * the bids and capacities, plans, books about 35 bids, deducts their trucks and rejects the rest.
+ *
+ * Each invocation gets its own load and bids, created outside the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 50)
+@Measurement(iterations = 50)
+@Fork(1)
+public class AutoAllocateBenchmark {
+
+    private static final int TRANSPORTERS = 250;
+    private static final int BIDS_PER_TRANSPORTER = 2;
+    private static final int TRUCKS_NEEDED = 100;
+
+    private BenchmarkApplication application;
+    private LoadService loadService;
+    private BookingService bookingService;
+    private JdbcTemplate jdbcTemplate;
+    private UUID loadId;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start();
+        loadService = application.bean(LoadService.class);
+        bookingService = application.bean(BookingService.class);
+        jdbcTemplate = application.bean(JdbcTemplate.class);
+
+        // Enough trucks that no transporter runs out over the whole run.
+        jdbcTemplate.update("""
+                INSERT INTO transporters (transporter_id, company_name, rating)
+                SELECT gen_random_uuid(), 'Transporter ' || i, 1 + i % 5
+                FROM generate_series(1, ?) AS i""", TRANSPORTERS);
+        jdbcTemplate.update("""
+                INSERT INTO transporter_truck_capacities (id, transporter_id, truck_type, count)
+                SELECT gen_random_uuid(), transporter_id, 'Flatbed', 100000 FROM transporters""");
+    }
+
+    @Setup(Level.Invocation)
+    public void postLoadWithBids() {
+        loadId = loadService.createLoad(new LoadRequest("shipper-benchmark", "Pune", "Delhi",
+                Timestamp.from(Instant.now().plus(30, ChronoUnit.DAYS)), "Steel", 1000, WeightUnit.KG, "Flatbed",
+                TRUCKS_NEEDED)).loadId();
+        jdbcTemplate.update("""
+                INSERT INTO bids (bid_id, load_id, transporter_id, proposed_rate, trucks_offered, status,
+                                  submitted_at, score, version)
+                SELECT gen_random_uuid(), ?, t.transporter_id, 500 + floor(random() * 4500), 1 + floor(random() * 5),
+                       'PENDING', now(), random(), 0
+                FROM transporters t CROSS JOIN generate_series(1, ?)""", loadId, BIDS_PER_TRANSPORTER);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    @Benchmark
+    public BatchBookingResponse autoAllocate() {
+        return bookingService.autoAllocate(loadId, AllocationObjective.SCORE);
+    }
+}
@@ -0,0 +1,135 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.BenchmarkApplication;
+import com.cargopro.tms.dto.BidResponse;
+import com.cargopro.tms.dto.LoadRequest;
+import com.cargopro.tms.dto.LoadResponse;
+import com.cargopro.tms.dto.LoadWithBidsResponse;
+import com.cargopro.tms.entity.Bid;
+import com.cargopro.tms.entity.Load;
+import com.cargopro.tms.entity.WeightUnit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and response size of GET /load/{loadId} on a load with a long bid history, 1 bid in 20 still PENDING.
+ *
+ * Compares the previous implementation (the load and every bid in two round trips) with the single lateral
+ * query returning the active bids, uncapped and with bidLimit=20. Each operation includes the JSON
+ * serialization of the response; the response sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadWithBidsBenchmark {
+
+    private static final int BID_LIMIT = 20;
+
+    @Param({"100", "1000", "10000"})
+    private int bidHistory;
+
+    private BenchmarkApplication application;
+    private LoadService loadService;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate readOnlyTransaction;
+    private ObjectMapper objectMapper;
+    private UUID loadId;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        application = BenchmarkApplication.start();
+        loadService = application.bean(LoadService.class);
+        entityManagerFactory = application.bean(EntityManagerFactory.class);
+        readOnlyTransaction = new TransactionTemplate(application.bean(TransactionTemplate.class).getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+        objectMapper = application.bean(ObjectMapper.class);
+
+        loadId = loadService.createLoad(new LoadRequest("shipper-benchmark", "Pune", "Delhi",
+                Timestamp.from(Instant.now().plus(30, ChronoUnit.DAYS)), "Steel", 1000, WeightUnit.KG, "Flatbed", 5))
+                .loadId();
+        JdbcTemplate jdbcTemplate = application.bean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO bids (bid_id, load_id, transporter_id, proposed_rate, trucks_offered, status,
+                                  submitted_at, score, version)
+                SELECT gen_random_uuid(), ?, gen_random_uuid(), 1000 + i % 500, 1,
+                       CASE WHEN i % 20 = 0 THEN 'PENDING' ELSE 'REJECTED' END,
+                       now() - (? - i) * interval '1 minute', 0.001, 0
+                FROM generate_series(1, ?) AS i""", loadId, bidHistory, bidHistory);
+        jdbcTemplate.execute("ANALYZE bids");
+
+        System.out.printf("Response size with %d bids: all bids %d bytes, active bids %d bytes, bidLimit=%d %d bytes%n",
+                bidHistory, allBidsInTwoQueries().length, activeBidsInOneQuery().length,
+                BID_LIMIT, activeBidsCappedInOneQuery().length);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    /**
+     * The previous getLoadWithBids: the load, then every bid of any status, in two round trips.
+     * The second-level cache is bypassed so the load is read from the database as it was then.
+     */
+    @Benchmark
+    public byte[] allBidsInTwoQueries() throws JsonProcessingException {
+        LoadWithBidsResponse response = readOnlyTransaction.execute(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            Load load = entityManager.find(Load.class, loadId);
+            List<Bid> bids = entityManager.createQuery("SELECT b FROM Bid b WHERE b.loadId = :loadId", Bid.class)
+                    .setParameter("loadId", loadId)
+                    .getResultList();
+            return new LoadWithBidsResponse(
+                    new LoadResponse(load.getLoadId(), load.getShipperId(), load.getLoadingCity(), load.getUnloadingCity(),
+                            load.getLoadingDate(), load.getProductType(), load.getWeight(), load.getWeightUnit(),
+                            load.getTruckType(), load.getNumOfTrucks(), load.getStatus(), load.getDatePosted()),
+                    bids.stream()
+                            .map(bid -> new BidResponse(bid.getBidId(), bid.getLoadId(), bid.getTransporterId(),
+                                    bid.getProposedRate(), bid.getTrucksOffered(), bid.getStatus(), bid.getSubmittedAt(), null))
+                            .toList());
+        });
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] activeBidsInOneQuery() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(loadService.getLoadWithBids(loadId, null));
+    }
+
+    @Benchmark
+    public byte[] activeBidsCappedInOneQuery() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(loadService.getLoadWithBids(loadId, BID_LIMIT));
+    }
+}
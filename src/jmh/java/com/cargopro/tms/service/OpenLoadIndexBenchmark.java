@@ -0,0 +1,164 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.entity.Load;
+import com.cargopro.tms.entity.LoadStatus;
+import com.cargopro.tms.entity.WeightUnit;
+import com.cargopro.tms.repository.LoadRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lane search and matching-feed latency of OpenLoadIndex over 1M open loads
+ * (500 cities, 8 truck types, loading dates spread over 90 days), at the default limit of 50.
+ *
+ * The index is filled through its own warm-up, from a stubbed repository, so no database is involved.
+ * Each invocation takes the next of 1024 pre-built random queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class OpenLoadIndexBenchmark {
+
+    private static final int OPEN_LOADS = 1_000_000;
+    private static final int CITIES = 500;
+    private static final String[] TRUCK_TYPES =
+            {"Flatbed", "Container", "Trailer", "Tanker", "Reefer", "Tipper", "Canter", "Open Body"};
+    private static final int LIMIT = 50;
+    private static final int QUERIES = 1024;
+
+    private OpenLoadIndex index;
+
+    private final LoadSearchCriteria[] laneQueries = new LoadSearchCriteria[QUERIES];
+    private final LoadSearchCriteria[] truckTypeWeekQueries = new LoadSearchCriteria[QUERIES];
+    private final LoadSearchCriteria[] weightDayQueries = new LoadSearchCriteria[QUERIES];
+    private final List<Set<String>> feedQueries = new ArrayList<>(QUERIES);
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+
+        List<Load> loads = new ArrayList<>(OPEN_LOADS);
+        for (int i = 0; i < OPEN_LOADS; i++) {
+            Load load = new Load();
+            load.setLoadId(new UUID(random.nextLong(), random.nextLong()));
+            load.setShipperId("shipper-" + random.nextInt(10_000));
+            load.setLoadingCity(city(random.nextInt(CITIES)));
+            load.setUnloadingCity(city(random.nextInt(CITIES)));
+            load.setLoadingDate(Timestamp.from(today.plusSeconds(random.nextInt(90 * 86_400))));
+            load.setProductType("Steel");
+            load.setWeight(1_000 + random.nextInt(39_000));
+            load.setWeightUnit(WeightUnit.KG);
+            load.setTruckType(TRUCK_TYPES[random.nextInt(TRUCK_TYPES.length)]);
+            load.setNumOfTrucks(1 + random.nextInt(10));
+            load.setAllocatedTrucks(0);
+            load.setStatus(random.nextBoolean() ? LoadStatus.POSTED : LoadStatus.OPEN_FOR_BIDS);
+            load.setDatePosted(Timestamp.from(today));
+            load.setVersion(0L);
+            loads.add(load);
+        }
+
+        // One chunk holding every open load, then an empty one to end the warm-up.
+        LoadRepository loadRepository = mock(LoadRepository.class);
+        doReturn(loads, List.of()).when(loadRepository).findBy(any(Specification.class), any());
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        index = new OpenLoadIndex(loadRepository, entityManager, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), OPEN_LOADS, Duration.ofMinutes(10));
+        index.warmUp();
+
+        for (int q = 0; q < QUERIES; q++) {
+            laneQueries[q] = new LoadSearchCriteria(city(random.nextInt(CITIES)), city(random.nextInt(CITIES)),
+                    null, null, null, null, null);
+
+            Timestamp weekFrom = Timestamp.from(today.plus(random.nextInt(83), ChronoUnit.DAYS));
+            truckTypeWeekQueries[q] = new LoadSearchCriteria(null, null,
+                    TRUCK_TYPES[random.nextInt(TRUCK_TYPES.length)], null, null,
+                    weekFrom, Timestamp.from(weekFrom.toInstant().plus(7, ChronoUnit.DAYS)));
+
+            Timestamp dayFrom = Timestamp.from(today.plus(random.nextInt(89), ChronoUnit.DAYS));
+            double minWeightKg = 1_000 + random.nextInt(35_000);
+            weightDayQueries[q] = new LoadSearchCriteria(null, null, null, minWeightKg, minWeightKg + 2_000,
+                    dayFrom, Timestamp.from(dayFrom.toInstant().plus(1, ChronoUnit.DAYS)));
+
+            feedQueries.add(Set.of(
+                    LoadSearchCriteria.normalize(TRUCK_TYPES[q % TRUCK_TYPES.length]),
+                    LoadSearchCriteria.normalize(TRUCK_TYPES[(q + 1) % TRUCK_TYPES.length])));
+        }
+    }
+
+    /**
+     * Loading and unloading city: reads the lane posting set (a few loads per lane).
+     */
+    @Benchmark
+    public List<OpenLoadIndex.IndexedLoad> laneSearch() {
+        return index.search(laneQueries[nextQuery()], LIMIT).orElseThrow();
+    }
+
+    /**
+     * Truck type in a one-week loading window: seeks into the truck type's posting set and reads the first page.
+     */
+    @Benchmark
+    public List<OpenLoadIndex.IndexedLoad> truckTypeInWeekSearch() {
+        return index.search(truckTypeWeekQueries[nextQuery()], LIMIT).orElseThrow();
+    }
+
+    /**
+     * 2-tonne weight range in a one-day loading window: no posting set applies, so the loading date order is walked.
+     */
+    @Benchmark
+    public List<OpenLoadIndex.IndexedLoad> weightInDaySearch() {
+        return index.search(weightDayQueries[nextQuery()], LIMIT).orElseThrow();
+    }
+
+    /**
+     * A transporter's matching-loads feed for two truck types.
+     */
+    @Benchmark
+    public List<OpenLoadIndex.IndexedLoad> matchingFeed() {
+        return index.matching(feedQueries.get(nextQuery()), LIMIT).orElseThrow();
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+
+    private static String city(int i) {
+        return "City " + i;
+    }
+}
@@ -0,0 +1,128 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.BenchmarkApplication;
+import com.cargopro.tms.entity.Transporter;
+import com.cargopro.tms.repository.LoadRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read throughput of a load by ID and of a transporter with its truck capacities, uniformly over
+ * 100k loads and 20k transporters, with the second-level cache switched off and on.
+ *
+ * With the cache on, every entity is read once before the run so that the benchmark measures repeat
+ * access; the whole run stays well within the 60s time-to-live of the Load region.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final int LOADS = 100_000;
+    private static final int TRANSPORTERS = 20_000;
+    private static final int CHUNK_SIZE = 1000;
+
+    @Param({"false", "true"})
+    private boolean secondLevelCache;
+
+    private BenchmarkApplication application;
+    private LoadService loadService;
+    private TransporterService transporterService;
+    private TransactionTemplate readOnlyTransaction;
+    private UUID[] loadIds;
+    private UUID[] transporterIds;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start(
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache);
+        loadService = application.bean(LoadService.class);
+        transporterService = application.bean(TransporterService.class);
+        readOnlyTransaction = new TransactionTemplate(application.bean(TransactionTemplate.class).getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+
+        JdbcTemplate jdbcTemplate = application.bean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO loads (load_id, shipper_id, loading_city, unloading_city, loading_date, product_type,
+                                   weight, weight_unit, truck_type, num_of_trucks, allocated_trucks, status,
+                                   date_posted, version, bid_set_version)
+                SELECT gen_random_uuid(), 'shipper-' || (i % 1000), 'City ' || (i % 500), 'City ' || (i % 499),
+                       now() + (i % 90) * interval '1 day', 'Steel', 1000 + i % 39000, 'KG', 'Flatbed',
+                       1 + i % 10, 0, 'POSTED', now() - i * interval '1 second', 0, 0
+                FROM generate_series(1, ?) AS i""", LOADS);
+        jdbcTemplate.update("""
+                INSERT INTO transporters (transporter_id, company_name, rating)
+                SELECT gen_random_uuid(), 'Transporter ' || i, 1 + i % 5
+                FROM generate_series(1, ?) AS i""", TRANSPORTERS);
+        jdbcTemplate.update("""
+                INSERT INTO transporter_truck_capacities (id, transporter_id, truck_type, count)
+                SELECT gen_random_uuid(), t.transporter_id, truck_type, 1 + abs(hashtext(t.company_name)) % 20
+                FROM transporters t CROSS JOIN (VALUES ('Flatbed'), ('Container'), ('Reefer')) AS types(truck_type)""");
+        jdbcTemplate.execute("ANALYZE");
+        loadIds = jdbcTemplate.queryForList("SELECT load_id FROM loads", UUID.class).toArray(UUID[]::new);
+        transporterIds = jdbcTemplate.queryForList("SELECT transporter_id FROM transporters", UUID.class)
+                .toArray(UUID[]::new);
+
+        if (secondLevelCache) {
+            for (UUID transporterId : transporterIds) {
+                transporterWithTrucks(transporterId);
+            }
+            LoadRepository loadRepository = application.bean(LoadRepository.class);
+            for (int from = 0; from < loadIds.length; from += CHUNK_SIZE) {
+                List<UUID> chunk = List.of(loadIds).subList(from, Math.min(from + CHUNK_SIZE, loadIds.length));
+                readOnlyTransaction.executeWithoutResult(status -> loadRepository.findAllById(chunk));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    /**
+     * LoadService.getLoadById: one Load read by primary key.
+     */
+    @Benchmark
+    public Object loadById() {
+        return loadService.getLoadById(loadIds[ThreadLocalRandom.current().nextInt(loadIds.length)]);
+    }
+
+    /**
+     * GET /transporter/{transporterId}: the transporter and its availableTrucks collection, which the
+     * response serializes.
+     */
+    @Benchmark
+    public int transporterWithTrucks() {
+        return transporterWithTrucks(transporterIds[ThreadLocalRandom.current().nextInt(transporterIds.length)]);
+    }
+
+    private int transporterWithTrucks(UUID transporterId) {
+        return readOnlyTransaction.execute(status -> {
+            Transporter transporter = transporterService.getTransporterDetails(transporterId);
+            return transporter.getAvailableTrucks().size();
+        });
+    }
+}
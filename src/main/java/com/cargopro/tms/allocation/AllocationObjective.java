@@ -0,0 +1,16 @@
+package com.cargopro.tms.allocation;
+
+/**
+ * What an automatic allocation optimizes when it fills a load from its pending bids.
+ */
+public enum AllocationObjective {
+    /**
+     * Maximize the total score of the allocated trucks (the same ranking as best-bids).
+     */
+    SCORE,
+
+    /**
+     * Minimize the total cost of the allocated trucks.
+     */
+    COST
+}
@@ -0,0 +1,66 @@
+package com.cargopro.tms.allocation;
+
+import com.cargopro.tms.dto.BookingRequest;
+import com.cargopro.tms.entity.Bid;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Chooses how many trucks to take from each pending bid of a load.
+ *
+ * Each bid caps its own trucks (trucksOffered) and each transporter caps the sum over its bids
+ * (its available trucks of the load's type). These caps are nested, so the feasible allocations
+ * form a polymatroid and taking trucks greedily from the best bid down is optimal for any
+ * per-truck objective: there is no need for a knapsack search or backtracking. Planning is
+ * a sort plus one pass, well under a millisecond for hundreds of bids.
+ */
+public final class AllocationPlanner {
+
+    private static final Comparator<Bid> BY_SCORE = Comparator.comparingDouble(Bid::getScore).reversed();
+    private static final Comparator<Bid> BY_COST = Comparator.comparingDouble(Bid::getProposedRate);
+
+    private AllocationPlanner() {
+    }
+
+    /**
+     * Plans an allocation that covers as many of the needed trucks as the bids allow.
+     *
+     * @param pendingBids     The pending bids of the load.
+     * @param availableTrucks Available trucks of the load's type per transporter; not modified.
+     * @param trucksNeeded    The number of trucks still required by the load.
+     * @param objective       Whether to prefer the best scored or the cheapest bids.
+     * @return The bookings to make, best first, each at the bid's proposed rate.
+     */
+    public static List<BookingRequest> plan(List<Bid> pendingBids, Map<UUID, Integer> availableTrucks,
+                                            int trucksNeeded, AllocationObjective objective) {
+        // Ties prefer bids that can cover more trucks (fewer bookings), then a stable order.
+        Comparator<Bid> order = (objective == AllocationObjective.COST ? BY_COST : BY_SCORE)
+                .thenComparing(Comparator.comparingInt(Bid::getTrucksOffered).reversed())
+                .thenComparing(Bid::getBidId);
+
+        List<Bid> ranked = new ArrayList<>(pendingBids);
+        ranked.sort(order);
+
+        Map<UUID, Integer> remainingCapacity = new HashMap<>(availableTrucks);
+        List<BookingRequest> plan = new ArrayList<>();
+        int remaining = trucksNeeded;
+        for (Bid bid : ranked) {
+            if (remaining <= 0) {
+                break;
+            }
+            int capacity = remainingCapacity.getOrDefault(bid.getTransporterId(), 0);
+            int trucks = Math.min(remaining, Math.min(bid.getTrucksOffered(), capacity));
+            if (trucks > 0) {
+                plan.add(new BookingRequest(bid.getBidId(), trucks, bid.getProposedRate()));
+                remainingCapacity.put(bid.getTransporterId(), capacity - trucks);
+                remaining -= trucks;
+            }
+        }
+        return plan;
+    }
+}
@@ -2,15 +2,23 @@ package com.cargopro.tms.controller;
 
 import com.cargopro.tms.dto.BidRequest;
 import com.cargopro.tms.dto.BidResponse;
+import com.cargopro.tms.dto.CursorPage;
 import com.cargopro.tms.entity.BidStatus;
 import com.cargopro.tms.service.BidService;
+import com.cargopro.tms.service.IdempotencyService;
+import com.cargopro.tms.service.LoadService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -19,45 +27,63 @@ import java.util.UUID;
  * Base path: /bid
  */
 @RestController
+@Validated
 @RequestMapping("/bid")
 public class BidController {
 
     private final BidService bidService;
+    private final LoadService loadService;
+    private final IdempotencyService idempotencyService;
 
-    public BidController(BidService bidService) {
+    public BidController(BidService bidService, LoadService loadService, IdempotencyService idempotencyService) {
         this.bidService = bidService;
+        this.loadService = loadService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * 1. POST /bid
      * Submits a new bid for a load.
      * Validates capacity and load status via the service.
+     * Retries carrying the same Idempotency-Key get the original response instead of a duplicate bid;
+     * reusing a key for a different request body returns HTTP 422.
      *
-     * @param request The bid submission details.
+     * @param request        The bid submission details.
+     * @param idempotencyKey Optional client-generated key that makes retries safe.
      * @return The created bid response with HTTP 201 Created.
      */
     @PostMapping
-    public ResponseEntity<BidResponse> submitBid(@Valid @RequestBody BidRequest request) {
-        BidResponse response = bidService.submitBid(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    public ResponseEntity<BidResponse> submitBid(
+            @Valid @RequestBody BidRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) @Size(max = 255) String idempotencyKey) {
+        return idempotencyService.execute("bid", idempotencyKey, request, BidResponse.class, () ->
+                new ResponseEntity<>(bidService.submitBid(request), HttpStatus.CREATED));
     }
 
     /**
      * 2. GET /bid
      * Retrieves bids based on optional filters (loadId, transporterId, status) with pagination.
+     * When filtered by loadId, responses carry the load's ETag and a request whose If-None-Match
+     * still matches gets HTTP 304 Not Modified.
      *
      * @param loadId        Optional load ID filter.
      * @param transporterId Optional transporter ID filter.
      * @param status        Optional status filter.
      * @param pageable      Pagination information.
-     * @return A page of bid responses with HTTP 200 OK.
+     * @param webRequest    The current request, for If-None-Match.
+     * @return A page of bid responses with HTTP 200 OK, or null once a 304 has been set.
      */
     @GetMapping
     public ResponseEntity<Page<BidResponse>> getBids(
             @RequestParam(required = false) UUID loadId,
             @RequestParam(required = false) UUID transporterId,
             @RequestParam(required = false) BidStatus status,
-            Pageable pageable) {
+            Pageable pageable,
+            WebRequest webRequest) {
+        // Every bid of the page belongs to the load, so the load's tag covers the whole page.
+        if (loadId != null && loadService.getLoadETag(loadId).map(webRequest::checkNotModified).orElse(false)) {
+            return null;
+        }
         Page<BidResponse> response = bidService.getBids(loadId, transporterId, status, pageable);
         return ResponseEntity.ok(response);
     }
@@ -87,4 +113,27 @@ public class BidController {
         BidResponse response = bidService.rejectBid(bidId);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * 5. GET /bid/seek
+     * Retrieves bids newest first with keyset pagination. Pass the returned nextCursor to get the
+     * following page; deep pages cost the same as the first and no total count is computed.
+     *
+     * @param loadId        Optional load ID filter.
+     * @param transporterId Optional transporter ID filter.
+     * @param status        Optional status filter.
+     * @param cursor        Optional cursor from the previous page.
+     * @param size          Page size (default 20, at most 200).
+     * @return A page of bid responses and the next cursor with HTTP 200 OK.
+     */
+    @GetMapping("/seek")
+    public ResponseEntity<CursorPage<BidResponse>> getBidsByCursor(
+            @RequestParam(required = false) UUID loadId,
+            @RequestParam(required = false) UUID transporterId,
+            @RequestParam(required = false) BidStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Positive @Max(200) int size) {
+        CursorPage<BidResponse> response = bidService.getBidsByCursor(loadId, transporterId, status, cursor, size);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -1,28 +1,35 @@
 package com.cargopro.tms.controller;
 
+import com.cargopro.tms.dto.BatchBookingRequest;
+import com.cargopro.tms.dto.BatchBookingResponse;
 import com.cargopro.tms.dto.BookingRequest;
 import com.cargopro.tms.dto.BookingResponse;
 import com.cargopro.tms.service.BookingService;
+import com.cargopro.tms.service.IdempotencyService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
 
 /**
  * REST Controller for managing Bookings.
- * Base path: /booking
+ * Base path: /booking (mapped per method so that /booking:batch can live alongside it)
  */
 @RestController
-@RequestMapping("/booking")
+@Validated
 public class BookingController {
 
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, IdempotencyService idempotencyService) {
         this.bookingService = bookingService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -30,18 +37,25 @@ public class BookingController {
      * Accepts a bid and creates a booking.
      * This is the main transactional endpoint that handles bid acceptance,
      * capacity allocation, and concurrency control.
+     * Retries carrying the same Idempotency-Key get the original response without booking again;
+     * reusing a key for a different request body returns HTTP 422.
      *
-     * @param request The booking creation details (bidId, allocatedTrucks, finalRate).
+     * @param request        The booking creation details (bidId, allocatedTrucks, finalRate).
+     * @param idempotencyKey Optional client-generated key that makes retries safe.
      * @return The created booking response with HTTP 201 Created.
      */
-    @PostMapping
-    public ResponseEntity<BookingResponse> createBooking(@Valid @RequestBody BookingRequest request) {
-        BookingResponse response = bookingService.acceptBidAndCreateBooking(
-                request.bidId(),
-                request.allocatedTrucks(),
-                request.finalRate()
-        );
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    @PostMapping("/booking")
+    public ResponseEntity<BookingResponse> createBooking(
+            @Valid @RequestBody BookingRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) @Size(max = 255) String idempotencyKey) {
+        return idempotencyService.execute("booking", idempotencyKey, request, BookingResponse.class, () -> {
+            BookingResponse response = bookingService.acceptBidAndCreateBooking(
+                    request.bidId(),
+                    request.allocatedTrucks(),
+                    request.finalRate()
+            );
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
     }
 
     /**
@@ -51,7 +65,7 @@ public class BookingController {
      * @param bookingId The ID of the booking.
      * @return The booking details with HTTP 200 OK.
      */
-    @GetMapping("/{bookingId}")
+    @GetMapping("/booking/{bookingId}")
     public ResponseEntity<BookingResponse> getBookingById(@PathVariable UUID bookingId) {
         BookingResponse response = bookingService.getBookingById(bookingId);
         return ResponseEntity.ok(response);
@@ -65,9 +79,23 @@ public class BookingController {
      * @param bookingId The ID of the booking to cancel.
      * @return The updated booking response with HTTP 200 OK.
      */
-    @PatchMapping("/{bookingId}/cancel")
+    @PatchMapping("/booking/{bookingId}/cancel")
     public ResponseEntity<BookingResponse> cancelBooking(@PathVariable UUID bookingId) {
         BookingResponse response = bookingService.cancelBooking(bookingId);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * 4. POST /booking:batch
+     * Accepts several bids on one load in a single transaction.
+     * Each item is reported individually; invalid items are skipped while the rest are booked.
+     *
+     * @param request The load ID and the bids to accept.
+     * @return The per-item results and the resulting load allocation with HTTP 200 OK.
+     */
+    @PostMapping("/booking:batch")
+    public ResponseEntity<BatchBookingResponse> createBookings(@Valid @RequestBody BatchBookingRequest request) {
+        BatchBookingResponse response = bookingService.acceptBidsForLoad(request.loadId(), request.bookings());
+        return ResponseEntity.ok(response);
+    }
 }
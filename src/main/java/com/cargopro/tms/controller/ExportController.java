@@ -0,0 +1,56 @@
+package com.cargopro.tms.controller;
+
+import com.cargopro.tms.service.ExportService;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * REST Controller for bulk data exports.
+ * Base path: /export
+ */
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * 1. GET /export/{type}
+     * Streams all loads, bids or bookings as NDJSON (one JSON object per line), oldest first.
+     * The response is gzipped when the client sends Accept-Encoding: gzip.
+     *
+     * @param type           loads, bids or bookings.
+     * @param since          Optional ISO-8601 instant; only records created at or after it are exported.
+     * @param acceptEncoding The client's accepted encodings.
+     * @return The streamed records with HTTP 200 OK.
+     */
+    @GetMapping("/{type:loads|bids|bookings}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        ExportService.ExportType exportType = ExportService.ExportType.valueOf(type.toUpperCase(Locale.ROOT));
+        return response.body(out -> exportService.export(exportType, since, gzip, out));
+    }
+}
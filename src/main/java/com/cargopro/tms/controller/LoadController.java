@@ -1,20 +1,37 @@
 package com.cargopro.tms.controller;
 
+import com.cargopro.tms.allocation.AllocationObjective;
+import com.cargopro.tms.dto.BatchBestBidsRequest;
+import com.cargopro.tms.dto.BatchBookingResponse;
+import com.cargopro.tms.dto.CursorPage;
 import com.cargopro.tms.dto.BidResponse;
+import com.cargopro.tms.dto.LoadCancellationResponse;
 import com.cargopro.tms.dto.LoadRequest;
 import com.cargopro.tms.dto.LoadResponse;
 import com.cargopro.tms.dto.LoadWithBidsResponse;
 import com.cargopro.tms.entity.LoadStatus;
+import com.cargopro.tms.entity.WeightUnit;
+import com.cargopro.tms.service.BookingService;
+import com.cargopro.tms.service.LoadSearchCriteria;
 import com.cargopro.tms.service.LoadService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -22,13 +39,16 @@ import java.util.UUID;
  * Base path: /load
  */
 @RestController
+@Validated
 @RequestMapping("/load")
 public class LoadController {
 
     private final LoadService loadService;
+    private final BookingService bookingService;
 
-    public LoadController(LoadService loadService) {
+    public LoadController(LoadService loadService, BookingService bookingService) {
         this.loadService = loadService;
+        this.bookingService = bookingService;
     }
 
     /**
@@ -64,40 +84,142 @@ public class LoadController {
 
     /**
      * 3. GET /load/{loadId}
-     * Retrieves a specific load by its ID, including active bids.
+     * Retrieves a specific load by its ID, including its active (PENDING) bids in submission order.
+     * Responses carry an ETag read in the same query as the load; a request whose If-None-Match
+     * still matches gets HTTP 304 Not Modified without a body.
      *
-     * @param loadId The ID of the load.
-     * @return The load details with active bids and HTTP 200 OK.
+     * @param loadId     The ID of the load.
+     * @param bidLimit   Optional maximum number of bids to return.
+     * @param webRequest The current request, for If-None-Match.
+     * @return The load details with active bids and HTTP 200 OK, or null once a 304 has been set.
      */
     @GetMapping("/{loadId}")
-    public ResponseEntity<LoadWithBidsResponse> getLoadById(@PathVariable UUID loadId) {
-        LoadWithBidsResponse response = loadService.getLoadWithBids(loadId);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<LoadWithBidsResponse> getLoadById(
+            @PathVariable UUID loadId,
+            @RequestParam(required = false) @Positive Integer bidLimit,
+            WebRequest webRequest) {
+        return loadService.getLoadWithBidsIfModified(loadId, bidLimit, webRequest::checkNotModified)
+                .map(ResponseEntity::ok)
+                .orElse(null);
     }
 
     /**
      * 4. PATCH /load/{loadId}/cancel
-     * Cancels a load.
+     * Cancels a load and rejects its PENDING bids.
      *
      * @param loadId The ID of the load to cancel.
-     * @return HTTP 200 OK if successful.
+     * @return The new status and the number of rejected bids with HTTP 200 OK.
      */
     @PatchMapping("/{loadId}/cancel")
-    public ResponseEntity<Void> cancelLoad(@PathVariable UUID loadId) {
-        loadService.cancelLoad(loadId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<LoadCancellationResponse> cancelLoad(@PathVariable UUID loadId) {
+        LoadCancellationResponse response = loadService.cancelLoad(loadId);
+        return ResponseEntity.ok(response);
     }
 
     /**
      * 5. GET /load/{loadId}/best-bids
-     * Retrieves the best bids for a load, sorted by score.
+     * Retrieves the best pending bids for a load, sorted by score.
+     * Responses carry an ETag of the ranking they were served from; a request whose If-None-Match
+     * still matches gets HTTP 304 Not Modified without the bids being read.
      *
-     * @param loadId The ID of the load.
-     * @return A list of sorted bid responses with HTTP 200 OK.
+     * @param loadId     The ID of the load.
+     * @param limit      Optional maximum number of bids to return.
+     * @param webRequest The current request, for If-None-Match.
+     * @return A list of sorted bid responses with HTTP 200 OK, or null once a 304 has been set.
      */
     @GetMapping("/{loadId}/best-bids")
-    public ResponseEntity<List<BidResponse>> getBestBids(@PathVariable UUID loadId) {
-        List<BidResponse> response = loadService.getBestBids(loadId);
+    public ResponseEntity<List<BidResponse>> getBestBids(
+            @PathVariable UUID loadId,
+            @RequestParam(required = false) @Positive Integer limit,
+            WebRequest webRequest) {
+        return loadService.getBestBidsIfModified(loadId, limit, webRequest::checkNotModified)
+                .map(ResponseEntity::ok)
+                .orElse(null);
+    }
+
+    /**
+     * 6. POST /load/best-bids:batch
+     * Retrieves the best bids for several loads in one request.
+     *
+     * @param request The load IDs and an optional per-load limit.
+     * @return A map of load ID to sorted bid responses with HTTP 200 OK.
+     */
+    @PostMapping("/best-bids:batch")
+    public ResponseEntity<Map<UUID, List<BidResponse>>> getBestBidsBatch(@Valid @RequestBody BatchBestBidsRequest request) {
+        Map<UUID, List<BidResponse>> response = loadService.getBestBidsForLoads(request.loadIds(), request.limit());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 7. POST /load/{loadId}/auto-allocate
+     * Fills the load's remaining trucks from its pending bids and books them in one transaction.
+     *
+     * @param loadId    The ID of the load.
+     * @param objective SCORE (default) to prefer the best scored bids, COST to prefer the cheapest.
+     * @return The bookings made and the resulting load allocation with HTTP 200 OK.
+     */
+    @PostMapping("/{loadId}/auto-allocate")
+    public ResponseEntity<BatchBookingResponse> autoAllocate(
+            @PathVariable UUID loadId,
+            @RequestParam(defaultValue = "SCORE") AllocationObjective objective) {
+        BatchBookingResponse response = bookingService.autoAllocate(loadId, objective);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 8. GET /load/seek
+     * Retrieves loads newest first with keyset pagination. Pass the returned nextCursor to get the
+     * following page; deep pages cost the same as the first and no total count is computed.
+     *
+     * @param shipperId Optional shipper ID filter.
+     * @param status    Optional status filter.
+     * @param cursor    Optional cursor from the previous page.
+     * @param size      Page size (default 20, at most 200).
+     * @return A page of load responses and the next cursor with HTTP 200 OK.
+     */
+    @GetMapping("/seek")
+    public ResponseEntity<CursorPage<LoadResponse>> getLoadsByCursor(
+            @RequestParam(required = false) String shipperId,
+            @RequestParam(required = false) LoadStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Positive @Max(200) int size) {
+        CursorPage<LoadResponse> response = loadService.getLoadsByCursor(shipperId, status, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 9. GET /load/search
+     * Searches the open loads (POSTED or OPEN_FOR_BIDS) by lane, truck type, weight and loading date.
+     * Cities and truck type are matched case-insensitively; every filter is optional.
+     *
+     * @param loadingCity   Optional loading city filter.
+     * @param unloadingCity Optional unloading city filter.
+     * @param truckType     Optional truck type filter.
+     * @param minWeight     Optional inclusive minimum weight.
+     * @param maxWeight     Optional inclusive maximum weight.
+     * @param weightUnit    Unit of minWeight and maxWeight (default KG).
+     * @param loadingFrom   Optional inclusive start of the loading date window (ISO-8601 instant).
+     * @param loadingTo     Optional inclusive end of the loading date window (ISO-8601 instant).
+     * @param limit         Maximum number of loads to return (default 50, at most 500).
+     * @return The matching loads, earliest loading date first, with HTTP 200 OK.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<LoadResponse>> searchLoads(
+            @RequestParam(required = false) String loadingCity,
+            @RequestParam(required = false) String unloadingCity,
+            @RequestParam(required = false) String truckType,
+            @RequestParam(required = false) @PositiveOrZero Double minWeight,
+            @RequestParam(required = false) @PositiveOrZero Double maxWeight,
+            @RequestParam(defaultValue = "KG") WeightUnit weightUnit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant loadingFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant loadingTo,
+            @RequestParam(defaultValue = "50") @Positive @Max(500) int limit) {
+        LoadSearchCriteria criteria = new LoadSearchCriteria(loadingCity, unloadingCity, truckType,
+                minWeight == null ? null : weightUnit.toKilograms(minWeight),
+                maxWeight == null ? null : weightUnit.toKilograms(maxWeight),
+                loadingFrom == null ? null : Timestamp.from(loadingFrom),
+                loadingTo == null ? null : Timestamp.from(loadingTo));
+        List<LoadResponse> response = loadService.searchOpenLoads(criteria, limit);
         return ResponseEntity.ok(response);
     }
 }
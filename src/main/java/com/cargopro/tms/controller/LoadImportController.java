@@ -0,0 +1,47 @@
+package com.cargopro.tms.controller;
+
+import com.cargopro.tms.dto.LoadImportResponse;
+import com.cargopro.tms.service.LoadImportService;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * REST Controller for bulk load imports.
+ * Path: /load:import (kept outside LoadController, whose base path is /load/)
+ */
+@RestController
+public class LoadImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final LoadImportService loadImportService;
+
+    public LoadImportController(LoadImportService loadImportService) {
+        this.loadImportService = loadImportService;
+    }
+
+    /**
+     * 1. POST /load:import
+     * Creates loads from a CSV file (Content-Type: text/csv, with a header line naming the
+     * LoadRequest fields) or an NDJSON file (Content-Type: application/x-ndjson, one load per line).
+     * The body is streamed row by row; invalid rows are reported and skipped.
+     *
+     * @param contentType The format of the body.
+     * @param body        The file contents, UTF-8 encoded.
+     * @return The import report (rows read, imported, failed, row errors, throughput) with HTTP 200 OK.
+     */
+    @PostMapping(value = "/load:import", consumes = {"text/csv", NDJSON})
+    public ResponseEntity<LoadImportResponse> importLoads(
+            @RequestHeader("Content-Type") MediaType contentType,
+            InputStream body) {
+        LoadImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? LoadImportService.Format.NDJSON
+                : LoadImportService.Format.CSV;
+        LoadImportResponse response = loadImportService.importLoads(body, format);
+        return ResponseEntity.ok(response);
+    }
+}
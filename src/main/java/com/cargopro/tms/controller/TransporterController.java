@@ -1,13 +1,18 @@
 package com.cargopro.tms.controller;
 
+import com.cargopro.tms.dto.LoadResponse;
+import com.cargopro.tms.dto.TransporterRatingRequest;
 import com.cargopro.tms.dto.TransporterRequest;
 import com.cargopro.tms.entity.Transporter;
 import com.cargopro.tms.entity.TransporterTruckCapacity;
 import com.cargopro.tms.service.TransporterService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,6 +23,7 @@ import java.util.UUID;
  * Base path: /transporter
  */
 @RestController
+@Validated
 @RequestMapping("/transporter")
 public class TransporterController {
 
@@ -68,4 +74,38 @@ public class TransporterController {
         Transporter updatedTransporter = transporterService.updateTruckCapacity(transporterId, capacityUpdates);
         return ResponseEntity.ok(updatedTransporter);
     }
+
+    /**
+     * 4. PUT /transporter/{transporterId}/rating
+     * Updates the rating of a specific transporter.
+     * Scores of the transporter's pending bids are recomputed in the background.
+     *
+     * @param transporterId The ID of the transporter.
+     * @param request The new rating.
+     * @return The updated transporter entity with HTTP 200 OK.
+     */
+    @PutMapping("/{transporterId}/rating")
+    public ResponseEntity<Transporter> updateRating(
+            @PathVariable UUID transporterId,
+            @Valid @RequestBody TransporterRatingRequest request) {
+        Transporter updatedTransporter = transporterService.updateRating(transporterId, request.rating());
+        return ResponseEntity.ok(updatedTransporter);
+    }
+
+    /**
+     * 5. GET /transporter/{transporterId}/matching-loads
+     * Retrieves the open loads the transporter can serve, i.e. loads requiring a truck type of
+     * which it has at least one truck available.
+     *
+     * @param transporterId The ID of the transporter.
+     * @param limit         Maximum number of loads to return (default 20, at most 200).
+     * @return The loads, earliest loading date first, then the most remaining trucks first, with HTTP 200 OK.
+     */
+    @GetMapping("/{transporterId}/matching-loads")
+    public ResponseEntity<List<LoadResponse>> getMatchingLoads(
+            @PathVariable UUID transporterId,
+            @RequestParam(defaultValue = "20") @Positive @Max(200) int limit) {
+        List<LoadResponse> response = transporterService.getMatchingLoads(transporterId, limit);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,20 @@
+package com.cargopro.tms.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for requesting the best bids of several loads at once.
+ */
+public record BatchBestBidsRequest(
+    @NotEmpty(message = "At least one load ID is required")
+    @Size(max = 500, message = "At most 500 loads can be requested at once")
+    List<@NotNull UUID> loadIds,
+
+    @Positive(message = "Limit must be positive")
+    Integer limit // Optional maximum number of bids per load
+) {}
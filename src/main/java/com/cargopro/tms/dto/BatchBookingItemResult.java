@@ -0,0 +1,14 @@
+package com.cargopro.tms.dto;
+
+import java.util.UUID;
+
+/**
+ * DTO for the outcome of one item of a batch booking.
+ * Exactly one of booking and error is set.
+ */
+public record BatchBookingItemResult(
+    UUID bidId,
+    boolean booked,
+    BookingResponse booking,
+    String error
+) {}
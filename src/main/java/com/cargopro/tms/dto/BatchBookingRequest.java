@@ -0,0 +1,20 @@
+package com.cargopro.tms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for accepting several bids on one load in a single transaction.
+ */
+public record BatchBookingRequest(
+    @NotNull(message = "Load ID is required")
+    UUID loadId,
+
+    @NotEmpty(message = "At least one booking is required")
+    @Size(max = 50, message = "At most 50 bookings can be created at once")
+    List<@Valid @NotNull BookingRequest> bookings
+) {}
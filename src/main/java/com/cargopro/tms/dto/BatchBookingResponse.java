@@ -0,0 +1,18 @@
+package com.cargopro.tms.dto;
+
+import com.cargopro.tms.entity.LoadStatus;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for returning the result of a batch booking, with one entry per requested bid in request order.
+ * rejectedBids counts the PENDING bids rejected because the batch filled the load; it is 0 otherwise.
+ */
+public record BatchBookingResponse(
+    UUID loadId,
+    LoadStatus loadStatus,
+    int numOfTrucks,
+    int allocatedTrucks,
+    List<BatchBookingItemResult> results,
+    int rejectedBids
+) {}
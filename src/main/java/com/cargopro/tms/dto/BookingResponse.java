@@ -6,6 +6,7 @@ import java.util.UUID;
 
 /**
  * DTO for returning Booking details.
+ * rejectedBids counts the PENDING bids rejected because this booking filled the load; it is 0 otherwise.
  */
 public record BookingResponse(
     UUID bookingId,
@@ -15,5 +16,6 @@ public record BookingResponse(
     int allocatedTrucks,
     double finalRate,
     BookingStatus status,
-    Timestamp bookedAt
+    Timestamp bookedAt,
+    int rejectedBids
 ) {}
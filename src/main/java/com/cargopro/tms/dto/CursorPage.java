@@ -0,0 +1,12 @@
+package com.cargopro.tms.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a keyset-paginated listing.
+ * nextCursor is an opaque token for the following page, or null on the last page.
+ */
+public record CursorPage<T>(
+    List<T> items,
+    String nextCursor
+) {}
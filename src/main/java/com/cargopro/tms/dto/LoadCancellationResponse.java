@@ -0,0 +1,13 @@
+package com.cargopro.tms.dto;
+
+import com.cargopro.tms.entity.LoadStatus;
+import java.util.UUID;
+
+/**
+ * DTO for returning the outcome of cancelling a load, including how many PENDING bids were rejected with it.
+ */
+public record LoadCancellationResponse(
+    UUID loadId,
+    LoadStatus status,
+    int rejectedBids
+) {}
@@ -0,0 +1,12 @@
+package com.cargopro.tms.dto;
+
+/**
+ * DTO for a row of a load import that was not imported.
+ *
+ * @param line    The 1-based line number of the row in the uploaded file.
+ * @param message Why the row was rejected.
+ */
+public record LoadImportError(
+    long line,
+    String message
+) {}
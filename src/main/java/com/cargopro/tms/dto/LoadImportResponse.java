@@ -0,0 +1,17 @@
+package com.cargopro.tms.dto;
+
+import java.util.List;
+
+/**
+ * DTO for returning the result of a bulk load import.
+ * Only the first errors are listed (see errorsTruncated); failed always counts every rejected row.
+ */
+public record LoadImportResponse(
+    long rowsRead,
+    long imported,
+    long failed,
+    List<LoadImportError> errors,
+    boolean errorsTruncated,
+    long elapsedMillis,
+    double rowsPerSecond
+) {}
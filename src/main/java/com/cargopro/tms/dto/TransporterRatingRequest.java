@@ -0,0 +1,15 @@
+package com.cargopro.tms.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO for updating a Transporter's rating.
+ */
+public record TransporterRatingRequest(
+        @NotNull(message = "Rating is required")
+        @DecimalMin(value = "1.0", message = "Rating must be between 1 and 5")
+        @DecimalMax(value = "5.0", message = "Rating must be between 1 and 5")
+        Double rating) {
+}
@@ -1,6 +1,7 @@
 package com.cargopro.tms.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.sql.Timestamp;
 import java.util.UUID;
@@ -9,7 +10,20 @@ import java.util.UUID;
  * Entity class representing a Bid placed by a Transporter for a specific Load.
  */
 @Entity // Specifies that this class is a JPA entity.
-@Table(name = "bids") // Optional: Specifies the name of the database table.
+@Table(name = "bids", indexes = {
+        // Serves the best-bids lookup as an index range scan: filter on loadId and status, ordered by score.
+        // Also serves the loadId + status filter of GET /bid and /bid/seek.
+        @Index(name = "idx_bids_load_status_score", columnList = "loadId, status, score DESC"),
+        // Serves rescoring a transporter's pending bids after a rating change, and the transporterId + status filter of GET /bid.
+        @Index(name = "idx_bids_transporter_status", columnList = "transporterId, status"),
+        // Serve newest-first keyset paging of a load's or a transporter's bids.
+        @Index(name = "idx_bids_load_submitted", columnList = "loadId, submittedAt DESC, bidId DESC"),
+        @Index(name = "idx_bids_transporter_submitted", columnList = "transporterId, submittedAt DESC, bidId DESC"),
+        // Serves the status-only filter of GET /bid and /bid/seek.
+        @Index(name = "idx_bids_status_submitted", columnList = "status, submittedAt DESC, bidId DESC"),
+        // Serves the incremental NDJSON export, which streams bids in submission order.
+        @Index(name = "idx_bids_submitted", columnList = "submittedAt, bidId")
+})
 public class Bid {
 
     /**
@@ -57,6 +71,23 @@ public class Bid {
      */
     private Timestamp submittedAt;
 
+    /**
+     * The bid score, computed from the proposed rate and the transporter rating with the load's
+     * scoring profile. Denormalized so best-bid lookups need no join or per-row computation.
+     * Zero means the bid has not been scored yet.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private double score;
+
+    /**
+     * Version field for Optimistic Locking. Also bumped by every bulk update of bids.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     // Getters and Setters
 
     public UUID getBidId() {
@@ -114,4 +145,20 @@ public class Bid {
     public void setSubmittedAt(Timestamp submittedAt) {
         this.submittedAt = submittedAt;
     }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
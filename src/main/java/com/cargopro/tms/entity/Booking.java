@@ -10,7 +10,13 @@ import java.util.UUID;
  * A booking is created when a bid is accepted for a load.
  */
 @Entity // Specifies that this class is a JPA entity.
-@Table(name = "bookings") // Optional: Specifies the name of the database table.
+@Table(name = "bookings", // Optional: Specifies the name of the database table.
+       indexes = {
+               // Supports summing the confirmed bookings of a load during reconciliation.
+               @Index(name = "idx_bookings_load_status", columnList = "loadId, status"),
+               // Serves the incremental NDJSON export, which streams bookings in booking order.
+               @Index(name = "idx_bookings_booked_at", columnList = "bookedAt, bookingId")
+       })
 public class Booking {
 
     /**
@@ -0,0 +1,90 @@
+package com.cargopro.tms.entity;
+
+import jakarta.persistence.*;
+
+import java.sql.Timestamp;
+
+/**
+ * Entity class representing the stored response of a request made with an Idempotency-Key.
+ * Lets a retried request be answered by any application instance without running it again.
+ */
+@Entity // Specifies that this class is a JPA entity.
+@Table(name = "idempotency_records", // Optional: Specifies the name of the database table.
+       // Supports purging expired records.
+       indexes = @Index(name = "idx_idempotency_records_created_at", columnList = "createdAt"))
+public class IdempotencyRecord {
+
+    /**
+     * The operation and the client-supplied key, e.g. "booking:3f1c...".
+     */
+    @Id
+    @Column(length = 300, updatable = false, nullable = false)
+    private String idempotencyKey;
+
+    /**
+     * SHA-256 of the original request body, hex-encoded. A repeat with another body is rejected.
+     * Null for records stored before the hash was kept; those are replayed without the check.
+     */
+    @Column(length = 64)
+    private String requestHash;
+
+    /**
+     * HTTP status code of the original response.
+     */
+    @Column(nullable = false)
+    private int statusCode;
+
+    /**
+     * JSON body of the original response.
+     */
+    @Column(columnDefinition = "text")
+    private String responseBody;
+
+    /**
+     * The date and time when the original request completed.
+     */
+    @Column(nullable = false)
+    private Timestamp createdAt;
+
+    // Getters and Setters
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,6 +1,9 @@
 package com.cargopro.tms.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.sql.Timestamp;
 import java.util.UUID;
@@ -8,9 +11,22 @@ import java.util.UUID;
 /**
  * Entity class representing a Load in the Transport Management System.
  * This class maps to a database table and includes optimistic locking support.
+ * Loads are kept in the Hibernate second-level cache; a cached copy carries its version, so a
+ * booking that started from a stale copy fails its optimistic lock check like any other.
  */
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Entity // Specifies that this class is a JPA entity and maps to a database table.
-@Table(name = "loads") // Optional: Specifies the name of the database table.
+@Table(name = "loads", indexes = { // Optional: Specifies the name of the database table.
+        // Serve newest-first keyset paging of all loads and of a shipper's loads.
+        @Index(name = "idx_loads_date_posted", columnList = "datePosted DESC, loadId DESC"),
+        @Index(name = "idx_loads_shipper_date_posted", columnList = "shipperId, datePosted DESC, loadId DESC"),
+        // Serve the shipperId + status and status-only filters of GET /load and /load/seek.
+        @Index(name = "idx_loads_shipper_status_date_posted", columnList = "shipperId, status, datePosted DESC, loadId DESC"),
+        @Index(name = "idx_loads_status_date_posted", columnList = "status, datePosted DESC, loadId DESC"),
+        // Serve the loading date keyset scan of LoadExpiryJob.
+        @Index(name = "idx_loads_status_loading_date", columnList = "status, loadingDate, loadId")
+})
 public class Load {
 
     /**
@@ -69,6 +85,15 @@ public class Load {
      */
     private int numOfTrucks;
 
+    /**
+     * Number of trucks allocated by CONFIRMED bookings.
+     * Kept in step with the bookings by BookingService and protected by the version field;
+     * AllocatedTrucksReconciliationJob recomputes it from the bookings to repair drift.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int allocatedTrucks;
+
     /**
      * Current status of the load (e.g., POSTED, BOOKED).
      * Stored as a String in the database.
@@ -81,6 +106,15 @@ public class Load {
      */
     private Timestamp datePosted;
 
+    /**
+     * Counter of changes to the load's bids, bumped whenever a bid of the load is submitted,
+     * accepted, rejected or rescored. Together with version it identifies what GET /load/{loadId}
+     * and the bid lists of the load return (see LoadService.getLoadETag).
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long bidSetVersion;
+
     /**
      * Version field for Optimistic Locking.
      */
@@ -169,6 +203,14 @@ public class Load {
         this.numOfTrucks = numOfTrucks;
     }
 
+    public int getAllocatedTrucks() {
+        return allocatedTrucks;
+    }
+
+    public void setAllocatedTrucks(int allocatedTrucks) {
+        this.allocatedTrucks = allocatedTrucks;
+    }
+
     public LoadStatus getStatus() {
         return status;
     }
@@ -185,6 +227,14 @@ public class Load {
         this.datePosted = datePosted;
     }
 
+    public long getBidSetVersion() {
+        return bidSetVersion;
+    }
+
+    public void setBidSetVersion(long bidSetVersion) {
+        this.bidSetVersion = bidSetVersion;
+    }
+
     public Long getVersion() {
         return version;
     }
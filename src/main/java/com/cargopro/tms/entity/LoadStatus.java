@@ -4,5 +4,9 @@ public enum LoadStatus {
     POSTED,
     OPEN_FOR_BIDS,
     BOOKED,
-    CANCELLED
+    CANCELLED,
+    /**
+     * Bidding closed because the loading date passed; set by LoadExpiryJob. Terminal.
+     */
+    EXPIRED
 }
@@ -1,13 +1,18 @@
 package com.cargopro.tms.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Entity class representing a Transporter in the Transport Management System.
+ * Transporters and their truck capacities are kept in the Hibernate second-level cache.
  */
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Entity // Specifies that this class is a JPA entity.
 @Table(name = "transporters") // Optional: Specifies the name of the database table.
 public class Transporter {
@@ -38,6 +43,7 @@ public class Transporter {
      * FetchType.LAZY: Capacities are loaded on demand.
      * @JoinColumn: Creates a foreign key column 'transporter_id' in the 'transporter_truck_capacities' table.
      */
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "transporter_id") 
     private List<TransporterTruckCapacity> availableTrucks;
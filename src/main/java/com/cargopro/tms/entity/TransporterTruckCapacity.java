@@ -1,15 +1,27 @@
 package com.cargopro.tms.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
 /**
  * Entity class representing the truck capacity of a transporter.
  * This class maps to a database table and is linked to the Transporter entity.
+ * Cached in the second-level cache; the native count UPDATEs in TransporterTruckCapacityRepository
+ * declare this table as their query space, so only this region is invalidated by them.
+ * A transporter has at most one record per truck type, compared case-insensitively.
  */
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Entity // Specifies that this class is a JPA entity.
-@Table(name = "transporter_truck_capacities") // Optional: Specifies the name of the database table.
+@Table(name = "transporter_truck_capacities", // Optional: Specifies the name of the database table.
+       // Supports the conditional capacity UPDATEs, which look up rows by transporter.
+       indexes = @Index(name = "idx_truck_capacities_transporter", columnList = "transporter_id"),
+       // The capacity UPDATEs match on the lower-cased truck type, so it must identify one row.
+       uniqueConstraints = @UniqueConstraint(name = "uk_truck_capacities_transporter_type",
+                                             columnNames = {"transporter_id", "truck_type_key"}))
 public class TransporterTruckCapacity {
 
     /**
@@ -25,6 +37,13 @@ public class TransporterTruckCapacity {
      */
     private String truckType;
 
+    /**
+     * The lower-cased truck type, computed by the database; the capacity UPDATEs match on it.
+     */
+    @Column(insertable = false, updatable = false,
+            columnDefinition = "varchar(255) GENERATED ALWAYS AS (lower(truck_type)) STORED")
+    private String truckTypeKey;
+
     /**
      * The number of trucks of this type available.
      */
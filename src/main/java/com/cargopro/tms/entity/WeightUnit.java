@@ -1,6 +1,19 @@
 package com.cargopro.tms.entity;
 
 public enum WeightUnit {
-    KG,
-    TON
+    KG(1),
+    TON(1000);
+
+    private final double kilograms;
+
+    WeightUnit(double kilograms) {
+        this.kilograms = kilograms;
+    }
+
+    /**
+     * Converts a weight in this unit to kilograms.
+     */
+    public double toKilograms(double weight) {
+        return weight * kilograms;
+    }
 }
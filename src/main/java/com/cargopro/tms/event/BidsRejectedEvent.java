@@ -0,0 +1,17 @@
+package com.cargopro.tms.event;
+
+import com.cargopro.tms.entity.LoadStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published, once per transporter, when the PENDING bids on a load are rejected because the load
+ * was fully booked or cancelled. Listeners that notify transporters react after the change commits.
+ *
+ * @param transporterId The ID of the transporter whose bids were rejected.
+ * @param loadId        The ID of the load.
+ * @param loadStatus    The status that closed the load (BOOKED or CANCELLED).
+ * @param bidIds        The IDs of the rejected bids.
+ */
+public record BidsRejectedEvent(UUID transporterId, UUID loadId, LoadStatus loadStatus, List<UUID> bidIds) {}
@@ -0,0 +1,12 @@
+package com.cargopro.tms.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a transporter's rating changes.
+ * Listeners that depend on the rating (e.g. persisted bid scores) react after the change commits.
+ *
+ * @param transporterId The ID of the transporter.
+ * @param rating        The new rating.
+ */
+public record TransporterRatingChangedEvent(UUID transporterId, double rating) {}
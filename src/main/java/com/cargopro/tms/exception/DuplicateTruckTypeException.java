@@ -0,0 +1,15 @@
+package com.cargopro.tms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a transporter's truck capacities list the same truck type
+ * more than once, ignoring case.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class DuplicateTruckTypeException extends RuntimeException {
+    public DuplicateTruckTypeException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,7 @@
 package com.cargopro.tms.exception;
 
+import jakarta.validation.ConstraintViolationException;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -45,16 +47,70 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles DuplicateTruckTypeException.
+     * Returns 400 BAD REQUEST.
+     */
+    @ExceptionHandler(DuplicateTruckTypeException.class)
+    public ResponseEntity<Map<String, Object>> handleDuplicateTruckTypeException(DuplicateTruckTypeException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles LoadAlreadyBookedException.
      * Returns 409 CONFLICT.
-     * This is critical for handling optimistic locking failures where concurrent bookings occur.
+     * Raised when a load is already fully booked, including after concurrent bookings.
      */
     @ExceptionHandler(LoadAlreadyBookedException.class)
     public ResponseEntity<Map<String, Object>> handleLoadAlreadyBookedException(LoadAlreadyBookedException ex) {
         return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
     }
 
+    /**
+     * Handles LoadBusyException.
+     * Returns 503 SERVICE UNAVAILABLE; the client may retry.
+     */
+    @ExceptionHandler(LoadBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleLoadBusyException(LoadBusyException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles RequestInProgressException.
+     * Returns 409 CONFLICT; the client may retry with the same Idempotency-Key.
+     */
+    @ExceptionHandler(RequestInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleRequestInProgressException(RequestInProgressException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles IdempotencyKeyReusedException.
+     * Returns 422 UNPROCESSABLE ENTITY; the key belongs to a different request.
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handles InvalidCursorException.
+     * Returns 400 BAD REQUEST.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursorException(InvalidCursorException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles ConstraintViolationException raised by validated request parameters.
+     * Returns 400 BAD REQUEST.
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleConstraintViolationException(ConstraintViolationException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Helper method to build a structured error response.
      *
@@ -4,8 +4,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 /**
- * Exception thrown when an optimistic locking failure occurs, indicating
- * that the load has already been modified or booked by another transaction.
+ * Exception thrown when a booking is attempted on a load that is already fully booked.
+ * Optimistic locking failures are retried first and only end up here once the load is BOOKED.
  */
 @ResponseStatus(HttpStatus.CONFLICT)
 public class LoadAlreadyBookedException extends RuntimeException {
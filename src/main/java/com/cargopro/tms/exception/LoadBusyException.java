@@ -0,0 +1,15 @@
+package com.cargopro.tms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a load is too contended to process a booking in time.
+ * The request did not change anything and can safely be retried.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LoadBusyException extends RuntimeException {
+    public LoadBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.cargopro.tms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request with the same Idempotency-Key is still being processed
+ * and did not finish in time. The client should retry with the same key.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class RequestInProgressException extends RuntimeException {
+    public RequestInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,130 @@
+package com.cargopro.tms.job;
+
+import com.cargopro.tms.entity.BookingStatus;
+import com.cargopro.tms.entity.Load;
+import com.cargopro.tms.entity.LoadStatus;
+import com.cargopro.tms.exception.LoadBusyException;
+import com.cargopro.tms.repository.BookingRepository;
+import com.cargopro.tms.repository.LoadAllocationDrift;
+import com.cargopro.tms.repository.LoadRepository;
+import com.cargopro.tms.service.BookingService;
+import com.cargopro.tms.service.LoadLocks;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Background job that recomputes Load.allocatedTrucks from the CONFIRMED bookings.
+ *
+ * The counter is maintained by BookingService, so drift only appears after manual data fixes
+ * or on loads that were booked before the column existed. Drifted loads are found with one
+ * keyset-paged query and repaired one by one, under the same per-load lock as bookings. A repair
+ * also moves the load's status as a booking would (see BookingService.reconcileAllocation).
+ */
+@Component
+public class AllocatedTrucksReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AllocatedTrucksReconciliationJob.class);
+
+    /**
+     * Smallest UUID in PostgreSQL ordering; the starting point of every keyset scan.
+     */
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final LoadRepository loadRepository;
+    private final BookingRepository bookingRepository;
+    private final LoadLocks loadLocks;
+    private final BookingService bookingService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter driftCounter;
+    private final int chunkSize;
+
+    public AllocatedTrucksReconciliationJob(LoadRepository loadRepository, BookingRepository bookingRepository,
+                                            LoadLocks loadLocks, BookingService bookingService, TransactionTemplate transactionTemplate,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${tms.allocation.reconcile-chunk-size:500}") int chunkSize) {
+        this.loadRepository = loadRepository;
+        this.bookingRepository = bookingRepository;
+        this.loadLocks = loadLocks;
+        this.bookingService = bookingService;
+        this.transactionTemplate = transactionTemplate;
+        this.driftCounter = Counter.builder("tms.allocation.drift")
+                .description("Loads whose allocatedTrucks counter was repaired by reconciliation")
+                .register(meterRegistry);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Scans all loads for drift and repairs it. Runs once at startup and then periodically.
+     */
+    @Scheduled(initialDelayString = "${tms.allocation.reconcile-initial-delay-ms:0}",
+               fixedDelayString = "${tms.allocation.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        int repaired = 0;
+        UUID after = MIN_UUID;
+        List<LoadAllocationDrift> chunk;
+        do {
+            chunk = loadRepository.findAllocationDrift(BookingStatus.CONFIRMED, after, Limit.of(chunkSize));
+            for (LoadAllocationDrift drift : chunk) {
+                if (repair(drift)) {
+                    repaired++;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                after = chunk.get(chunk.size() - 1).getLoadId();
+            }
+        } while (chunk.size() == chunkSize);
+
+        if (repaired > 0) {
+            log.warn("Repaired allocatedTrucks on {} loads", repaired);
+        }
+    }
+
+    /**
+     * Re-checks one load under its lock, since a booking may have fixed or moved it since the scan.
+     */
+    private boolean repair(LoadAllocationDrift drift) {
+        UUID loadId = drift.getLoadId();
+        try {
+            Boolean repaired = loadLocks.withLock(loadId, () -> transactionTemplate.execute(status -> {
+                Load load = loadRepository.findById(loadId).orElse(null);
+                if (load == null) {
+                    return false;
+                }
+                int confirmed = (int) bookingRepository.sumAllocatedTrucks(loadId, BookingStatus.CONFIRMED);
+                if (load.getAllocatedTrucks() == confirmed) {
+                    return false;
+                }
+                log.warn("Load {} has allocatedTrucks {} but its confirmed bookings allocate {}; repairing",
+                        loadId, load.getAllocatedTrucks(), confirmed);
+                LoadStatus before = load.getStatus();
+                int rejectedBids = bookingService.reconcileAllocation(load, confirmed);
+                loadRepository.save(load);
+                if (load.getStatus() != before) {
+                    log.warn("Load {} moved from {} to {} by reconciliation; {} pending bids rejected",
+                            loadId, before, load.getStatus(), rejectedBids);
+                }
+                return true;
+            }));
+            if (Boolean.TRUE.equals(repaired)) {
+                driftCounter.increment();
+                return true;
+            }
+        } catch (LoadBusyException | ObjectOptimisticLockingFailureException e) {
+            log.info("Skipping reconciliation of busy load {}; it will be retried on the next run", loadId);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,132 @@
+package com.cargopro.tms.job;
+
+import com.cargopro.tms.entity.BidStatus;
+import com.cargopro.tms.event.TransporterRatingChangedEvent;
+import com.cargopro.tms.repository.BidRepository;
+import com.cargopro.tms.repository.BidScoringInput;
+import com.cargopro.tms.repository.LoadRepository;
+import com.cargopro.tms.scoring.BidScorer;
+import com.cargopro.tms.scoring.BidScorerRegistry;
+import com.cargopro.tms.service.BidLeaderboard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Background job that keeps the persisted Bid score in sync with transporter ratings.
+ *
+ * Bids are processed in keyset-paged chunks. The bids of a chunk are grouped by scoring
+ * profile and scored with BidScorer.scoreAll over primitive arrays; each chunk is then
+ * stored with one UPDATE per profile in its own transaction, so a transporter with many
+ * pending bids never holds a long-running transaction.
+ */
+@Component
+public class BidRescoringJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BidRescoringJob.class);
+
+    /**
+     * Smallest UUID in PostgreSQL ordering; the starting point of every keyset scan.
+     */
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final BidRepository bidRepository;
+    private final LoadRepository loadRepository;
+    private final BidScorerRegistry bidScorerRegistry;
+    private final BidLeaderboard bidLeaderboard;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BidRescoringJob(BidRepository bidRepository, LoadRepository loadRepository, BidScorerRegistry bidScorerRegistry,
+                           BidLeaderboard bidLeaderboard, TransactionTemplate transactionTemplate,
+                           @Value("${tms.rescoring.chunk-size:500}") int chunkSize) {
+        this.bidRepository = bidRepository;
+        this.loadRepository = loadRepository;
+        this.bidScorerRegistry = bidScorerRegistry;
+        this.bidLeaderboard = bidLeaderboard;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Rescores the PENDING bids of a transporter after its rating change has committed.
+     */
+    @Async
+    @TransactionalEventListener
+    public void onTransporterRatingChanged(TransporterRatingChangedEvent event) {
+        int rescored = rescore(after -> bidRepository.findScoringInputsByTransporter(
+                event.transporterId(), BidStatus.PENDING, after, Limit.of(chunkSize)));
+        log.info("Rescored {} pending bids of transporter {}", rescored, event.transporterId());
+    }
+
+    /**
+     * Scores PENDING bids that were stored before the score column existed.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillUnscoredBids() {
+        int rescored = rescore(after -> bidRepository.findUnscoredScoringInputs(BidStatus.PENDING, after, Limit.of(chunkSize)));
+        if (rescored > 0) {
+            log.info("Backfilled scores of {} pending bids", rescored);
+        }
+    }
+
+    private int rescore(Function<UUID, List<BidScoringInput>> nextChunk) {
+        int total = 0;
+        UUID after = MIN_UUID;
+        List<BidScoringInput> chunk;
+        do {
+            chunk = nextChunk.apply(after);
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            // One batch score and one UPDATE per scoring profile present in the chunk
+            Map<BidScorer, List<BidScoringInput>> inputsByScorer = chunk.stream()
+                    .collect(Collectors.groupingBy(
+                            input -> bidScorerRegistry.forLoad(input.getShipperId(), input.getTruckType())));
+            List<UUID> loadIds = chunk.stream().map(BidScoringInput::getLoadId).distinct().toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                inputsByScorer.forEach(this::storeScores);
+                loadRepository.incrementBidSetVersion(loadIds);
+            });
+
+            // Cached rankings of the affected loads are now stale
+            loadIds.forEach(bidLeaderboard::evictLoad);
+
+            total += chunk.size();
+            after = chunk.get(chunk.size() - 1).getBidId();
+        } while (chunk.size() == chunkSize);
+        return total;
+    }
+
+    private void storeScores(BidScorer scorer, List<BidScoringInput> inputs) {
+        int n = inputs.size();
+        UUID[] bidIds = new UUID[n];
+        double[] proposedRates = new double[n];
+        double[] ratings = new double[n];
+        for (int i = 0; i < n; i++) {
+            BidScoringInput input = inputs.get(i);
+            bidIds[i] = input.getBidId();
+            proposedRates[i] = input.getProposedRate();
+            ratings[i] = input.getRating();
+        }
+        double[] scores = new double[n];
+        scorer.scoreAll(proposedRates, ratings, scores);
+        bidRepository.updateScores(bidIds, ratings, scores, BidStatus.PENDING.name());
+    }
+}
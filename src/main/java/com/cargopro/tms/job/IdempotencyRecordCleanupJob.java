@@ -0,0 +1,39 @@
+package com.cargopro.tms.job;
+
+import com.cargopro.tms.repository.IdempotencyRecordRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Background job that deletes stored Idempotency-Key responses once they have expired.
+ */
+@Component
+public class IdempotencyRecordCleanupJob {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyRecordCleanupJob.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Duration ttl;
+
+    public IdempotencyRecordCleanupJob(IdempotencyRecordRepository idempotencyRecordRepository,
+                                       @Value("${tms.idempotency.ttl:PT24H}") Duration ttl) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttl = ttl;
+    }
+
+    @Scheduled(fixedDelayString = "${tms.idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = idempotencyRecordRepository.deleteByCreatedAtBefore(Timestamp.from(Instant.now().minus(ttl)));
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency records", deleted);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.cargopro.tms.job;
+
+import com.cargopro.tms.entity.BidStatus;
+import com.cargopro.tms.entity.LoadStatus;
+import com.cargopro.tms.repository.BidRepository;
+import com.cargopro.tms.repository.LoadDeadline;
+import com.cargopro.tms.repository.LoadRepository;
+import com.cargopro.tms.service.BidLeaderboard;
+import com.cargopro.tms.service.LoadLocks;
+import com.cargopro.tms.service.OpenLoadIndex;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background job that closes bidding on open loads whose loading date has passed.
+ *
+ * Expired loads are found with a keyset scan over (status, loadingDate, loadId) and handed out in
+ * chunks to a small, bounded worker pool; when all workers are busy the scanning thread processes
+ * the next chunk itself, so the scan never runs far ahead. Each chunk is closed in its own
+ * transaction with three set-based statements: lock the loads that are still open, move them to
+ * EXPIRED and reject their PENDING bids. Loads with confirmed bookings for some of their trucks
+ * expire as well; their bookings are kept.
+ *
+ * A booking takes no database row lock on its load until it flushes, so FOR UPDATE SKIP LOCKED
+ * alone does not see bookings in progress. Each chunk therefore runs while holding the LoadLocks
+ * stripes of its loads; loads whose stripe is held by a booking on this instance are skipped and
+ * picked up by the next run. Bookings on other instances that read a load before it expired fail
+ * their optimistic lock check, since expiring a load increments its version.
+ */
+@Component
+public class LoadExpiryJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadExpiryJob.class);
+
+    /**
+     * Smallest UUID in PostgreSQL ordering; the starting point of every keyset scan.
+     */
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    /**
+     * Earlier than any loading date; the starting point of every keyset scan.
+     */
+    private static final Timestamp MIN_LOADING_DATE = Timestamp.valueOf("0001-01-01 00:00:00");
+
+    private static final List<LoadStatus> OPEN_STATUSES = List.of(LoadStatus.POSTED, LoadStatus.OPEN_FOR_BIDS);
+
+    private final LoadRepository loadRepository;
+    private final BidRepository bidRepository;
+    private final OpenLoadIndex openLoadIndex;
+    private final BidLeaderboard bidLeaderboard;
+    private final LoadLocks loadLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+    private final Counter loadsClosed;
+    private final Counter bidsRejected;
+    private final Timer sweepTimer;
+    private final Duration closeBeforeLoading;
+    private final int chunkSize;
+    private volatile double lastLoadsPerSecond;
+
+    public LoadExpiryJob(LoadRepository loadRepository, BidRepository bidRepository, OpenLoadIndex openLoadIndex,
+                         BidLeaderboard bidLeaderboard, LoadLocks loadLocks, TransactionTemplate transactionTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${tms.expiry.close-before-loading:PT0S}") Duration closeBeforeLoading,
+                         @Value("${tms.expiry.chunk-size:500}") int chunkSize,
+                         @Value("${tms.expiry.workers:4}") int workerCount) {
+        this.loadRepository = loadRepository;
+        this.bidRepository = bidRepository;
+        this.openLoadIndex = openLoadIndex;
+        this.bidLeaderboard = bidLeaderboard;
+        this.loadLocks = loadLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.closeBeforeLoading = closeBeforeLoading;
+        this.chunkSize = chunkSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "load-expiry-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.loadsClosed = Counter.builder("tms.expiry.loads-closed")
+                .description("Open loads moved to EXPIRED because their bidding deadline passed")
+                .register(meterRegistry);
+        this.bidsRejected = Counter.builder("tms.expiry.bids-rejected")
+                .description("PENDING bids rejected because their load expired")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("tms.expiry.sweep")
+                .description("Duration of one expiry run")
+                .register(meterRegistry);
+        Gauge.builder("tms.expiry.last-sweep-rate", this, job -> job.lastLoadsPerSecond)
+                .description("Loads closed per second by the most recent expiry run that closed any")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Closes every open load whose loading date is less than {@code closeBeforeLoading} away.
+     */
+    @Scheduled(initialDelayString = "${tms.expiry.initial-delay-ms:60000}",
+               fixedDelayString = "${tms.expiry.interval-ms:300000}")
+    public void expireLoads() {
+        long started = System.nanoTime();
+        Timestamp deadline = Timestamp.from(Instant.now().plus(closeBeforeLoading));
+
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        for (LoadStatus status : OPEN_STATUSES) {
+            Timestamp afterDate = MIN_LOADING_DATE;
+            UUID afterId = MIN_UUID;
+            List<LoadDeadline> chunk;
+            do {
+                chunk = loadRepository.findPastDeadline(status, deadline, afterDate, afterId, Limit.of(chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                List<UUID> loadIds = chunk.stream().map(LoadDeadline::getLoadId).toList();
+                chunks.add(CompletableFuture.supplyAsync(() -> closeChunk(loadIds, deadline), workers));
+
+                LoadDeadline last = chunk.get(chunk.size() - 1);
+                afterDate = last.getLoadingDate();
+                afterId = last.getLoadId();
+            } while (chunk.size() == chunkSize);
+        }
+        int closed = chunks.stream().mapToInt(CompletableFuture::join).sum();
+
+        long elapsedNanos = System.nanoTime() - started;
+        sweepTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (closed > 0) {
+            lastLoadsPerSecond = closed / (elapsedNanos / 1e9);
+            log.info("Expired {} loads past their bidding deadline in {} ms ({} loads/s)",
+                    closed, elapsedNanos / 1_000_000, Math.round(lastLoadsPerSecond));
+        }
+    }
+
+    /**
+     * Closes one chunk in its own transaction, holding the locks of its loads that no booking holds.
+     * Skipped loads and failed chunks are retried by the next run.
+     *
+     * @return The number of loads closed.
+     */
+    private int closeChunk(List<UUID> candidates, Timestamp deadline) {
+        try {
+            ChunkResult result = loadLocks.withFreeLocks(candidates, free -> close(free, deadline));
+            loadsClosed.increment(result.loadsClosed());
+            bidsRejected.increment(result.bidsRejected());
+            return result.loadsClosed();
+        } catch (DataAccessException e) {
+            log.warn("Could not expire a chunk of {} loads; it will be retried on the next run", candidates.size(), e);
+            return 0;
+        }
+    }
+
+    private ChunkResult close(List<UUID> candidates, Timestamp deadline) {
+        if (candidates.isEmpty()) {
+            return new ChunkResult(0, 0);
+        }
+        return transactionTemplate.execute(status -> {
+            // The loads may have been booked, cancelled or rescheduled since the scan.
+            List<UUID> loadIds = loadRepository.lockPastDeadline(candidates,
+                    OPEN_STATUSES.stream().map(Enum::name).toList(), deadline);
+            if (loadIds.isEmpty()) {
+                return new ChunkResult(0, 0);
+            }
+            loadRepository.updateStatus(loadIds, LoadStatus.EXPIRED);
+            int rejected = bidRepository.updateStatusByLoadIds(loadIds, BidStatus.PENDING, BidStatus.REJECTED);
+            loadRepository.incrementBidSetVersion(loadIds);
+            loadIds.forEach(loadId -> {
+                openLoadIndex.loadRemoved(loadId);
+                bidLeaderboard.evictLoad(loadId);
+            });
+            return new ChunkResult(loadIds.size(), rejected);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * Outcome of one committed chunk.
+     */
+    private record ChunkResult(int loadsClosed, int bidsRejected) {
+    }
+}
@@ -2,41 +2,158 @@ package com.cargopro.tms.repository;
 
 import com.cargopro.tms.entity.Bid;
 import com.cargopro.tms.entity.BidStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import java.sql.Timestamp;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for accessing Bid data.
+ * Filtered queries can be built from BidSpecifications.
  */
-public interface BidRepository extends JpaRepository<Bid, UUID> {
+public interface BidRepository extends JpaRepository<Bid, UUID>, JpaSpecificationExecutor<Bid> {
 
     /**
-     * Finds bids based on optional loadId, transporterId, and status.
+     * Finds the ID of the load a bid was placed on, without loading the bid.
      *
-     * @param loadId        Optional load ID.
-     * @param transporterId Optional transporter ID.
-     * @param status        Optional bid status.
-     * @param pageable      Pagination information.
-     * @return A page of bids matching the criteria.
+     * @param bidId The ID of the bid.
+     * @return The load ID, if the bid exists.
      */
-    @Query("SELECT b FROM Bid b WHERE " +
-           "(:loadId IS NULL OR b.loadId = :loadId) AND " +
-           "(:transporterId IS NULL OR b.transporterId = :transporterId) AND " +
-           "(:status IS NULL OR b.status = :status)")
-    Page<Bid> findBids(@Param("loadId") UUID loadId, 
-                       @Param("transporterId") UUID transporterId, 
-                       @Param("status") BidStatus status, 
-                       Pageable pageable);
+    @Query("SELECT b.loadId FROM Bid b WHERE b.bidId = :bidId")
+    java.util.Optional<UUID> findLoadIdByBidId(@Param("bidId") UUID bidId);
 
     /**
-     * Finds all bids for a specific load.
+     * Finds the bids of several loads with a given status.
+     *
+     * @param loadIds The IDs of the loads.
+     * @param status  The bid status.
+     * @return A list of bids for the loads.
+     */
+    java.util.List<Bid> findByLoadIdInAndStatus(java.util.Collection<UUID> loadIds, BidStatus status);
+
+    /**
+     * Finds the highest scoring bids for a load with a given status.
+     * Reads the persisted score, so with the (loadId, status, score) index this is an index range scan.
      *
      * @param loadId The ID of the load.
-     * @return A list of bids for the load.
+     * @param status The bid status.
+     * @param limit  The maximum number of bids to return.
+     * @return A list of bids, highest score first.
+     */
+    java.util.List<Bid> findByLoadIdAndStatusOrderByScoreDesc(UUID loadId, BidStatus status, Limit limit);
+
+    /**
+     * Finds the scoring inputs of a transporter's bids with a given status, in bidId order.
+     * Used to page through the bids in chunks after the transporter's rating changes.
+     *
+     * @param transporterId The ID of the transporter.
+     * @param status        The bid status.
+     * @param after         Only bids with an ID greater than this one are returned.
+     * @param limit         The maximum number of bids to return.
+     * @return A chunk of scoring inputs.
+     */
+    @Query("SELECT b.bidId AS bidId, b.loadId AS loadId, l.shipperId AS shipperId, l.truckType AS truckType, " +
+           "b.proposedRate AS proposedRate, t.rating AS rating " +
+           "FROM Bid b JOIN Load l ON l.loadId = b.loadId JOIN Transporter t ON t.transporterId = b.transporterId " +
+           "WHERE b.transporterId = :transporterId AND b.status = :status AND b.bidId > :after " +
+           "ORDER BY b.bidId")
+    java.util.List<BidScoringInput> findScoringInputsByTransporter(@Param("transporterId") UUID transporterId,
+                                                                   @Param("status") BidStatus status,
+                                                                   @Param("after") UUID after,
+                                                                   Limit limit);
+
+    /**
+     * Finds the scoring inputs of bids with a given status that have not been scored yet, in bidId order.
+     *
+     * @param status The bid status.
+     * @param after  Only bids with an ID greater than this one are returned.
+     * @param limit  The maximum number of bids to return.
+     * @return A chunk of scoring inputs.
+     */
+    @Query("SELECT b.bidId AS bidId, b.loadId AS loadId, l.shipperId AS shipperId, l.truckType AS truckType, " +
+           "b.proposedRate AS proposedRate, t.rating AS rating " +
+           "FROM Bid b JOIN Load l ON l.loadId = b.loadId JOIN Transporter t ON t.transporterId = b.transporterId " +
+           "WHERE b.score = 0 AND b.status = :status AND b.bidId > :after " +
+           "ORDER BY b.bidId")
+    java.util.List<BidScoringInput> findUnscoredScoringInputs(@Param("status") BidStatus status,
+                                                              @Param("after") UUID after,
+                                                              Limit limit);
+
+    /**
+     * Changes the status of all bids of a load that still have a given status, in one statement,
+     * and returns the changed bids. Pending changes of the persistence context are flushed first.
+     * Bumps the version of every changed bid.
+     *
+     * @param loadId The ID of the load.
+     * @param from   Only bids with this status are updated, by name.
+     * @param to     The new status, by name.
+     * @return The updated bids.
+     */
+    @Query(value = "UPDATE bids SET status = :to, version = version + 1 WHERE load_id = :loadId AND status = :from " +
+                   "RETURNING bid_id AS bidId, transporter_id AS transporterId",
+           nativeQuery = true)
+    java.util.List<RejectedBid> updateStatusByLoadId(@Param("loadId") UUID loadId,
+                                                      @Param("from") String from,
+                                                      @Param("to") String to);
+
+    /**
+     * Changes the status of all bids of several loads that still have a given status, in one statement.
+     * Bumps the version of every changed bid.
+     *
+     * @param loadIds The IDs of the loads.
+     * @param from    Only bids with this status are updated.
+     * @param to      The new status.
+     * @return The number of bids updated.
+     */
+    @Modifying
+    @Query("UPDATE Bid b SET b.status = :to, b.version = b.version + 1 WHERE b.loadId IN :loadIds AND b.status = :from")
+    int updateStatusByLoadIds(@Param("loadIds") java.util.Collection<UUID> loadIds,
+                              @Param("from") BidStatus from,
+                              @Param("to") BidStatus to);
+
+    /**
+     * Stores scores computed in memory for a set of bids, in one statement.
+     * Index i of each array describes the same bid. A bid is skipped if its transporter's rating
+     * is no longer the rating it was scored with; the rescoring triggered by that rating change covers it.
+     * Bumps the version of every rescored bid.
+     *
+     * @param bidIds  The IDs of the bids to update.
+     * @param ratings The transporter rating each score was computed from.
+     * @param scores  The new scores.
+     * @param status  Only bids that still have this status are updated, by name.
+     * @return The number of bids updated.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bids"))
+    @Query(value = "UPDATE bids b SET score = s.score, version = b.version + 1 " +
+                   "FROM unnest(CAST(:bidIds AS uuid[]), CAST(:ratings AS float8[]), CAST(:scores AS float8[])) " +
+                   "AS s(bid_id, rating, score), transporters t " +
+                   "WHERE b.bid_id = s.bid_id AND b.status = :status " +
+                   "AND t.transporter_id = b.transporter_id AND t.rating = s.rating",
+           nativeQuery = true)
+    int updateScores(@Param("bidIds") UUID[] bidIds,
+                     @Param("ratings") double[] ratings,
+                     @Param("scores") double[] scores,
+                     @Param("status") String status);
+
+    /**
+     * Streams the bids submitted at or after a point in time, oldest first, for the NDJSON export.
+     * Rows are fetched from a server-side cursor 1000 at a time and not tracked for changes;
+     * the caller must consume the stream inside a transaction and close it.
+     *
+     * @param since The earliest submittedAt to include.
+     * @return The bids, ordered by submittedAt and bidId.
      */
-    java.util.List<Bid> findByLoadId(UUID loadId);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b FROM Bid b WHERE b.submittedAt >= :since ORDER BY b.submittedAt, b.bidId")
+    Stream<Bid> streamSubmittedSince(@Param("since") Timestamp since);
 }
@@ -0,0 +1,21 @@
+package com.cargopro.tms.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of a Bid with the inputs of its score and the attributes of its Load that select the scoring profile.
+ */
+public interface BidScoringInput {
+
+    UUID getBidId();
+
+    UUID getLoadId();
+
+    String getShipperId();
+
+    String getTruckType();
+
+    double getProposedRate();
+
+    double getRating();
+}
@@ -0,0 +1,41 @@
+package com.cargopro.tms.repository;
+
+import com.cargopro.tms.entity.Bid;
+import com.cargopro.tms.entity.BidStatus;
+import org.springframework.data.jpa.domain.Specification;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Reusable query predicates for Bid. A null filter value yields a null specification,
+ * which Specification.where/and ignore, so optional filters never reach the SQL.
+ */
+public final class BidSpecifications {
+
+    private BidSpecifications() {
+    }
+
+    public static Specification<Bid> hasLoadId(UUID loadId) {
+        return loadId == null ? null : (root, query, cb) -> cb.equal(root.get("loadId"), loadId);
+    }
+
+    public static Specification<Bid> hasTransporterId(UUID transporterId) {
+        return transporterId == null ? null : (root, query, cb) -> cb.equal(root.get("transporterId"), transporterId);
+    }
+
+    public static Specification<Bid> hasStatus(BidStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Keyset predicate for newest-first paging: bids that sort after (submittedAt, bidId)
+     * in (submittedAt DESC, bidId DESC) order. The leading submittedAt bound lets the index
+     * range scan start at the cursor.
+     */
+    public static Specification<Bid> submittedBefore(Timestamp submittedAt, UUID bidId) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("submittedAt"), submittedAt),
+                cb.or(cb.lessThan(root.get("submittedAt"), submittedAt),
+                      cb.lessThan(root.get("bidId"), bidId)));
+    }
+}
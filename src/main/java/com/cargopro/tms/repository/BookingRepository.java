@@ -2,9 +2,17 @@ package com.cargopro.tms.repository;
 
 import com.cargopro.tms.entity.Booking;
 import com.cargopro.tms.entity.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for accessing Booking data.
@@ -19,4 +27,36 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
      * @return A list of bookings.
      */
     List<Booking> findByLoadIdAndStatus(UUID loadId, BookingStatus status);
+
+    /**
+     * Finds the ID of the load a booking belongs to, without loading the booking.
+     *
+     * @param bookingId The ID of the booking.
+     * @return The load ID, if the booking exists.
+     */
+    @Query("SELECT b.loadId FROM Booking b WHERE b.bookingId = :bookingId")
+    Optional<UUID> findLoadIdByBookingId(@Param("bookingId") UUID bookingId);
+
+    /**
+     * Sums the trucks allocated by the bookings of a load with a specific status.
+     *
+     * @param loadId The ID of the load.
+     * @param status The status of the bookings to sum.
+     * @return The total number of allocated trucks (0 if there are none).
+     */
+    @Query("SELECT COALESCE(SUM(b.allocatedTrucks), 0) FROM Booking b WHERE b.loadId = :loadId AND b.status = :status")
+    long sumAllocatedTrucks(@Param("loadId") UUID loadId, @Param("status") BookingStatus status);
+
+    /**
+     * Streams the bookings made at or after a point in time, oldest first, for the NDJSON export.
+     * Rows are fetched from a server-side cursor 1000 at a time and not tracked for changes;
+     * the caller must consume the stream inside a transaction and close it.
+     *
+     * @param since The earliest bookedAt to include.
+     * @return The bookings, ordered by bookedAt and bookingId.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b FROM Booking b WHERE b.bookedAt >= :since ORDER BY b.bookedAt, b.bookingId")
+    Stream<Booking> streamBookedSince(@Param("since") Timestamp since);
 }
@@ -0,0 +1,69 @@
+package com.cargopro.tms.repository;
+
+import com.cargopro.tms.entity.IdempotencyRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.Timestamp;
+import java.util.Optional;
+
+/**
+ * Repository interface for accessing stored Idempotency-Key responses.
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Finds a stored response that has not expired yet.
+     *
+     * @param idempotencyKey The operation-scoped key.
+     * @param createdAfter   Records created before this are considered expired.
+     * @return The stored response, if any.
+     */
+    Optional<IdempotencyRecord> findByIdempotencyKeyAndCreatedAtAfter(String idempotencyKey, Timestamp createdAfter);
+
+    /**
+     * Stores a response unless a live record with the same key exists. An expired record that
+     * has not been purged yet is overwritten. The unique key decides between concurrent inserts,
+     * so the loser learns about it instead of overwriting the winner. The statement names its table
+     * as its query space; without it Hibernate would clear the whole second-level cache after each one.
+     *
+     * @param idempotencyKey The operation-scoped key.
+     * @param requestHash    The hash of the request body.
+     * @param statusCode     The HTTP status code of the response.
+     * @param responseBody   The JSON body of the response.
+     * @param createdAt      The time the request completed.
+     * @param expiredBefore  Records created before this may be overwritten.
+     * @return 1 if the response was stored, 0 if a live record already existed.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_records"))
+    @Query(value = "INSERT INTO idempotency_records (idempotency_key, request_hash, status_code, response_body, created_at) " +
+                   "VALUES (:idempotencyKey, :requestHash, :statusCode, :responseBody, :createdAt) " +
+                   "ON CONFLICT (idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+                   "status_code = EXCLUDED.status_code, response_body = EXCLUDED.response_body, created_at = EXCLUDED.created_at " +
+                   "WHERE idempotency_records.created_at < :expiredBefore",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("idempotencyKey") String idempotencyKey,
+                       @Param("requestHash") String requestHash,
+                       @Param("statusCode") int statusCode,
+                       @Param("responseBody") String responseBody,
+                       @Param("createdAt") Timestamp createdAt,
+                       @Param("expiredBefore") Timestamp expiredBefore);
+
+    /**
+     * Deletes expired records.
+     *
+     * @param createdBefore Records created before this are deleted.
+     * @return The number of records deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :createdBefore")
+    int deleteByCreatedAtBefore(@Param("createdBefore") Timestamp createdBefore);
+}
@@ -0,0 +1,15 @@
+package com.cargopro.tms.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of a Load whose allocation counter disagrees with its confirmed bookings.
+ */
+public interface LoadAllocationDrift {
+
+    UUID getLoadId();
+
+    int getRecordedTrucks();
+
+    long getConfirmedTrucks();
+}
@@ -0,0 +1,14 @@
+package com.cargopro.tms.repository;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Projection of an open Load whose bidding deadline has passed; also the keyset cursor of the expiry scan.
+ */
+public interface LoadDeadline {
+
+    UUID getLoadId();
+
+    Timestamp getLoadingDate();
+}
@@ -1,18 +1,30 @@
 package com.cargopro.tms.repository;
 
+import com.cargopro.tms.entity.BookingStatus;
 import com.cargopro.tms.entity.Load;
 import com.cargopro.tms.entity.LoadStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for accessing Load data.
- * Extends JpaRepository to provide standard CRUD operations.
+ * Extends JpaRepository to provide standard CRUD operations, and JpaSpecificationExecutor
+ * for filtered queries built from LoadSpecifications.
  */
-public interface LoadRepository extends JpaRepository<Load, UUID> {
+public interface LoadRepository extends JpaRepository<Load, UUID>, JpaSpecificationExecutor<Load> {
 
     /**
      * Retrieves a list of loads posted by a specific shipper.
@@ -23,12 +35,129 @@ public interface LoadRepository extends JpaRepository<Load, UUID> {
     List<Load> findByShipperId(String shipperId);
 
     /**
-     * Finds loads by shipperId and status with pagination.
+     * Finds loads whose allocatedTrucks counter differs from the sum of their bookings, keyset-paged by loadId.
      *
-     * @param shipperId The ID of the shipper.
-     * @param status    The status of the load.
-     * @param pageable  Pagination information.
-     * @return A page of loads matching the criteria.
+     * @param status The booking status that counts as allocated (CONFIRMED).
+     * @param after  Only loads with an ID greater than this are returned.
+     * @param limit  The maximum number of loads to return.
+     * @return The drifted loads, ordered by loadId.
+     */
+    @Query("SELECT l.loadId AS loadId, l.allocatedTrucks AS recordedTrucks, " +
+           "COALESCE((SELECT SUM(b.allocatedTrucks) FROM Booking b WHERE b.loadId = l.loadId AND b.status = :status), 0) AS confirmedTrucks " +
+           "FROM Load l WHERE l.loadId > :after " +
+           "AND l.allocatedTrucks <> COALESCE((SELECT SUM(b.allocatedTrucks) FROM Booking b WHERE b.loadId = l.loadId AND b.status = :status), 0) " +
+           "ORDER BY l.loadId")
+    List<LoadAllocationDrift> findAllocationDrift(@Param("status") BookingStatus status, @Param("after") UUID after, Limit limit);
+
+    /**
+     * Finds loads with a status whose loading date is at or before a deadline, keyset-paged by
+     * (loadingDate, loadId). The leading loadingDate bound lets the (status, loadingDate, loadId)
+     * index range scan start at the cursor.
+     *
+     * @param status    The load status.
+     * @param deadline  The latest loading date to include.
+     * @param afterDate The loadingDate of the last load of the previous page.
+     * @param afterId   The loadId of the last load of the previous page.
+     * @param limit     The maximum number of loads to return.
+     * @return The loads, ordered by loadingDate and loadId.
+     */
+    @Query("SELECT l.loadId AS loadId, l.loadingDate AS loadingDate FROM Load l " +
+           "WHERE l.status = :status AND l.loadingDate <= :deadline " +
+           "AND l.loadingDate >= :afterDate AND (l.loadingDate > :afterDate OR l.loadId > :afterId) " +
+           "ORDER BY l.loadingDate, l.loadId")
+    List<LoadDeadline> findPastDeadline(@Param("status") LoadStatus status,
+                                        @Param("deadline") Timestamp deadline,
+                                        @Param("afterDate") Timestamp afterDate,
+                                        @Param("afterId") UUID afterId,
+                                        Limit limit);
+
+    /**
+     * Locks those of the given loads that are still open and past the deadline. Loads locked by
+     * another transaction (e.g. a booking that has already written the load) are skipped rather than waited for.
+     *
+     * @param loadIds  The candidate loads.
+     * @param statuses The open statuses, by name.
+     * @param deadline The latest loading date to include.
+     * @return The IDs of the locked loads.
+     */
+    @Query(value = "SELECT load_id FROM loads WHERE load_id IN (:loadIds) AND status IN (:statuses) " +
+                   "AND loading_date <= :deadline FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<UUID> lockPastDeadline(@Param("loadIds") Collection<UUID> loadIds,
+                                @Param("statuses") Collection<String> statuses,
+                                @Param("deadline") Timestamp deadline);
+
+    /**
+     * Sets the status of several loads in one statement. The version is incremented as well,
+     * so transactions that read the loads before the change fail their optimistic lock check.
+     *
+     * @param loadIds The IDs of the loads.
+     * @param status  The new status.
+     * @return The number of loads updated.
+     */
+    @Modifying
+    @Query("UPDATE Load l SET l.status = :status, l.version = l.version + 1 WHERE l.loadId IN :loadIds")
+    int updateStatus(@Param("loadIds") Collection<UUID> loadIds, @Param("status") LoadStatus status);
+
+    /**
+     * Reads the version and the bid set version of a load by primary key, without reading any other
+     * column. The cost does not depend on the number of bids.
+     *
+     * @param loadId The ID of the load.
+     * @return The versions, or empty if the load does not exist.
+     */
+    @Query("SELECT l.version AS loadVersion, l.bidSetVersion AS bidSetVersion FROM Load l WHERE l.loadId = :loadId")
+    Optional<LoadVersions> findVersions(@Param("loadId") UUID loadId);
+
+    /**
+     * Bumps the bid set version of several loads after a bulk update of their bids.
+     * Like any bulk update of loads, it evicts the Load region of the second-level cache.
+     *
+     * @param loadIds The IDs of the loads.
+     * @return The number of loads updated.
+     */
+    @Modifying
+    @Query("UPDATE Load l SET l.bidSetVersion = l.bidSetVersion + 1 WHERE l.loadId IN :loadIds")
+    int incrementBidSetVersion(@Param("loadIds") Collection<UUID> loadIds);
+
+    /**
+     * Reads a load and its bids with one status in a single round trip. A lateral join picks at
+     * most {@code bidLimit} bids in submission order, so long bid histories are never transferred.
+     *
+     * @param loadId    The ID of the load.
+     * @param bidStatus The status of the bids to include (PENDING for the active bids).
+     * @param bidLimit  The maximum number of bids, or null for all of them (a typed NULL limit means no limit in PostgreSQL).
+     * @return One row per bid, or a single row with null bid columns if the load has no such bids;
+     *         empty if the load does not exist.
+     */
+    @Query(value = "SELECT l.load_id AS loadId, l.shipper_id AS shipperId, l.loading_city AS loadingCity, " +
+                   "l.unloading_city AS unloadingCity, l.loading_date AS loadingDate, l.product_type AS productType, " +
+                   "l.weight AS weight, l.weight_unit AS weightUnit, l.truck_type AS truckType, " +
+                   "l.num_of_trucks AS numOfTrucks, l.status AS loadStatus, l.date_posted AS datePosted, " +
+                   "l.version AS loadVersion, l.bid_set_version AS bidSetVersion, " +
+                   "b.bid_id AS bidId, b.transporter_id AS transporterId, b.proposed_rate AS proposedRate, " +
+                   "b.trucks_offered AS trucksOffered, b.status AS bidStatus, b.submitted_at AS submittedAt " +
+                   "FROM loads l LEFT JOIN LATERAL (" +
+                   "  SELECT * FROM bids WHERE bids.load_id = l.load_id AND bids.status = :bidStatus " +
+                   "  ORDER BY bids.submitted_at, bids.bid_id LIMIT CAST(:bidLimit AS integer)" +
+                   ") b ON true " +
+                   "WHERE l.load_id = :loadId " +
+                   "ORDER BY b.submitted_at, b.bid_id",
+           nativeQuery = true)
+    List<LoadWithBidRow> findWithBids(@Param("loadId") UUID loadId,
+                                      @Param("bidStatus") String bidStatus,
+                                      @Param("bidLimit") Integer bidLimit);
+
+    /**
+     * Streams the loads posted at or after a point in time, oldest first, for the NDJSON export.
+     * Rows are fetched from a server-side cursor 1000 at a time and not tracked for changes;
+     * the caller must consume the stream inside a transaction and close it.
+     *
+     * @param since The earliest datePosted to include.
+     * @return The loads, ordered by datePosted and loadId.
      */
-    Page<Load> findByShipperIdAndStatus(String shipperId, LoadStatus status, Pageable pageable);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT l FROM Load l WHERE l.datePosted >= :since ORDER BY l.datePosted, l.loadId")
+    Stream<Load> streamPostedSince(@Param("since") Timestamp since);
 }
@@ -0,0 +1,95 @@
+package com.cargopro.tms.repository;
+
+import com.cargopro.tms.entity.Load;
+import com.cargopro.tms.entity.LoadStatus;
+import com.cargopro.tms.entity.WeightUnit;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Reusable query predicates for Load. A null filter value yields a null specification,
+ * which Specification.where/and ignore, so optional filters never reach the SQL.
+ */
+public final class LoadSpecifications {
+
+    private LoadSpecifications() {
+    }
+
+    public static Specification<Load> hasShipperId(String shipperId) {
+        return shipperId == null ? null : (root, query, cb) -> cb.equal(root.get("shipperId"), shipperId);
+    }
+
+    public static Specification<Load> hasStatus(LoadStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Keyset predicate for newest-first paging: loads that sort after (datePosted, loadId)
+     * in (datePosted DESC, loadId DESC) order. The leading datePosted bound lets the index
+     * range scan start at the cursor.
+     */
+    public static Specification<Load> postedBefore(Timestamp datePosted, UUID loadId) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("datePosted"), datePosted),
+                cb.or(cb.lessThan(root.get("datePosted"), datePosted),
+                      cb.lessThan(root.get("loadId"), loadId)));
+    }
+
+    public static Specification<Load> hasStatusIn(Collection<LoadStatus> statuses) {
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    /**
+     * Keyset predicate for loadId-ordered scans.
+     */
+    public static Specification<Load> idAfter(UUID loadId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("loadId"), loadId);
+    }
+
+    /**
+     * Case- and whitespace-insensitive match of the loading city; expects a normalized value.
+     */
+    public static Specification<Load> hasLoadingCityKey(String key) {
+        return key == null ? null : (root, query, cb) -> cb.equal(cb.lower(cb.trim(root.get("loadingCity"))), key);
+    }
+
+    public static Specification<Load> hasUnloadingCityKey(String key) {
+        return key == null ? null : (root, query, cb) -> cb.equal(cb.lower(cb.trim(root.get("unloadingCity"))), key);
+    }
+
+    public static Specification<Load> hasTruckTypeKey(String key) {
+        return key == null ? null : (root, query, cb) -> cb.equal(cb.lower(cb.trim(root.get("truckType"))), key);
+    }
+
+    public static Specification<Load> hasTruckTypeKeyIn(Collection<String> keys) {
+        return (root, query, cb) -> cb.lower(cb.trim(root.get("truckType"))).in(keys);
+    }
+
+    public static Specification<Load> weighsAtLeastKg(Double kilograms) {
+        return kilograms == null ? null : (root, query, cb) -> cb.ge(weightInKg(root, cb), kilograms);
+    }
+
+    public static Specification<Load> weighsAtMostKg(Double kilograms) {
+        return kilograms == null ? null : (root, query, cb) -> cb.le(weightInKg(root, cb), kilograms);
+    }
+
+    public static Specification<Load> loadingFrom(Timestamp from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("loadingDate"), from);
+    }
+
+    public static Specification<Load> loadingTo(Timestamp to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("loadingDate"), to);
+    }
+
+    private static Expression<Double> weightInKg(Root<Load> root, CriteriaBuilder cb) {
+        Expression<Double> weight = root.get("weight");
+        return cb.<WeightUnit, Double>selectCase(root.get("weightUnit"))
+                .when(WeightUnit.TON, cb.prod(weight, WeightUnit.TON.toKilograms(1)))
+                .otherwise(weight);
+    }
+}
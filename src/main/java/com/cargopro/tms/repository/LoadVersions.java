@@ -0,0 +1,11 @@
+package com.cargopro.tms.repository;
+
+/**
+ * Projection of the versions that determine what GET /load/{loadId} and the bid lists of a load return.
+ */
+public interface LoadVersions {
+
+    Long getLoadVersion();
+
+    Long getBidSetVersion();
+}
@@ -0,0 +1,55 @@
+package com.cargopro.tms.repository;
+
+import com.cargopro.tms.entity.BidStatus;
+import com.cargopro.tms.entity.LoadStatus;
+import com.cargopro.tms.entity.WeightUnit;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Projection of a Load joined with one of its bids. The bid columns are null when the load
+ * has no matching bid; the load columns repeat on every row.
+ */
+public interface LoadWithBidRow {
+
+    UUID getLoadId();
+
+    String getShipperId();
+
+    String getLoadingCity();
+
+    String getUnloadingCity();
+
+    Timestamp getLoadingDate();
+
+    String getProductType();
+
+    double getWeight();
+
+    WeightUnit getWeightUnit();
+
+    String getTruckType();
+
+    int getNumOfTrucks();
+
+    LoadStatus getLoadStatus();
+
+    Timestamp getDatePosted();
+
+    long getLoadVersion();
+
+    long getBidSetVersion();
+
+    UUID getBidId();
+
+    UUID getTransporterId();
+
+    Double getProposedRate();
+
+    Integer getTrucksOffered();
+
+    BidStatus getBidStatus();
+
+    Timestamp getSubmittedAt();
+}
@@ -0,0 +1,13 @@
+package com.cargopro.tms.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of a bid rejected by a bulk status update.
+ */
+public interface RejectedBid {
+
+    UUID getBidId();
+
+    UUID getTransporterId();
+}
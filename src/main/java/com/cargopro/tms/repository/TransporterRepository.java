@@ -1,11 +1,28 @@
 package com.cargopro.tms.repository;
 
 import com.cargopro.tms.entity.Transporter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Repository interface for accessing Transporter data.
  */
 public interface TransporterRepository extends JpaRepository<Transporter, UUID> {
+
+    /**
+     * Reads a transporter together with its truck capacities in one query, without tracking
+     * them for changes. Used to build cached snapshots.
+     *
+     * @param transporterId The ID of the transporter.
+     * @return The transporter, if it exists.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT t FROM Transporter t LEFT JOIN FETCH t.availableTrucks WHERE t.transporterId = :transporterId")
+    Optional<Transporter> findWithTrucks(@Param("transporterId") UUID transporterId);
 }
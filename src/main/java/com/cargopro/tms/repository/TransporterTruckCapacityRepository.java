@@ -0,0 +1,122 @@
+package com.cargopro.tms.repository;
+
+import com.cargopro.tms.entity.TransporterTruckCapacity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for accessing TransporterTruckCapacity data.
+ * Capacity is adjusted with single conditional UPDATE statements, so concurrent bookings
+ * for the same transporter cannot over-allocate trucks. Truck types are matched on the stored
+ * lower-cased key, which is unique per transporter, so each UPDATE changes at most one row.
+ * The UPDATEs name the table they write as their query space; without it Hibernate would
+ * clear the whole second-level cache after each one.
+ */
+public interface TransporterTruckCapacityRepository extends JpaRepository<TransporterTruckCapacity, UUID> {
+
+    /**
+     * Deducts trucks from a transporter's capacity, but only if enough trucks are available.
+     * The check and the write happen in one statement, which the database runs atomically.
+     *
+     * @param transporterId The ID of the transporter.
+     * @param truckType     The truck type, matched case-insensitively.
+     * @param trucks        The number of trucks to deduct.
+     * @return 1 if the capacity was deducted, 0 if there is no matching record or not enough trucks.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "transporter_truck_capacities"))
+    @Query(value = "UPDATE transporter_truck_capacities SET count = count - :trucks " +
+                   "WHERE transporter_id = :transporterId AND truck_type_key = lower(:truckType) AND count >= :trucks",
+           nativeQuery = true)
+    int decrementCount(@Param("transporterId") UUID transporterId,
+                       @Param("truckType") String truckType,
+                       @Param("trucks") int trucks);
+
+    /**
+     * Deducts trucks from several transporters' capacities in one statement. The caller must hold
+     * the locks of the capacity records (see lockCounts) and have checked the counts under them.
+     *
+     * @param transporterIds The IDs of the transporters, each at most once.
+     * @param trucks         The number of trucks to deduct from each transporter, by position.
+     * @param truckType      The truck type, matched case-insensitively.
+     * @return The number of capacity records updated.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "transporter_truck_capacities"))
+    @Query(value = "UPDATE transporter_truck_capacities c SET count = c.count - d.trucks " +
+                   "FROM unnest(CAST(:transporterIds AS uuid[]), CAST(:trucks AS integer[])) AS d(transporter_id, trucks) " +
+                   "WHERE c.transporter_id = d.transporter_id AND c.truck_type_key = lower(:truckType) AND c.count >= d.trucks",
+           nativeQuery = true)
+    int decrementCounts(@Param("transporterIds") UUID[] transporterIds,
+                        @Param("trucks") int[] trucks,
+                        @Param("truckType") String truckType);
+
+    /**
+     * Adds trucks back to a transporter's capacity.
+     *
+     * @param transporterId The ID of the transporter.
+     * @param truckType     The truck type, matched case-insensitively.
+     * @param trucks        The number of trucks to restore.
+     * @return The number of capacity records updated (0 if there is no matching record).
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "transporter_truck_capacities"))
+    @Query(value = "UPDATE transporter_truck_capacities SET count = count + :trucks " +
+                   "WHERE transporter_id = :transporterId AND truck_type_key = lower(:truckType)",
+           nativeQuery = true)
+    int incrementCount(@Param("transporterId") UUID transporterId,
+                       @Param("truckType") String truckType,
+                       @Param("trucks") int trucks);
+
+    /**
+     * Reads the current truck count of a transporter for a truck type.
+     * Used only to explain a failed deduction to the client.
+     *
+     * @param transporterId The ID of the transporter.
+     * @param truckType     The truck type, matched case-insensitively.
+     * @return The available count, if the transporter has a record for the truck type.
+     */
+    @Query(value = "SELECT count FROM transporter_truck_capacities " +
+                   "WHERE transporter_id = :transporterId AND truck_type_key = lower(:truckType)",
+           nativeQuery = true)
+    Optional<Integer> findCount(@Param("transporterId") UUID transporterId,
+                                @Param("truckType") String truckType);
+
+    /**
+     * Reads the truck counts of several transporters for one truck type in a single query.
+     *
+     * @param transporterIds The IDs of the transporters.
+     * @param truckType      The truck type, matched case-insensitively.
+     * @return One entry per transporter that has a record for the truck type.
+     */
+    @Query(value = "SELECT transporter_id AS transporterId, count AS count FROM transporter_truck_capacities " +
+                   "WHERE transporter_id IN (:transporterIds) AND truck_type_key = lower(:truckType)",
+           nativeQuery = true)
+    List<TruckCapacitySnapshot> findCounts(@Param("transporterIds") Collection<UUID> transporterIds,
+                                           @Param("truckType") String truckType);
+
+    /**
+     * Locks the capacity records of several transporters for one truck type and reads their truck
+     * counts. The records stay locked until the transaction ends and are locked in transporter order,
+     * so two batches deducting from the same transporters cannot deadlock.
+     *
+     * @param transporterIds The IDs of the transporters.
+     * @param truckType      The truck type, matched case-insensitively.
+     * @return One entry per transporter that has a record for the truck type.
+     */
+    @Query(value = "SELECT transporter_id AS transporterId, count AS count FROM transporter_truck_capacities " +
+                   "WHERE transporter_id IN (:transporterIds) AND truck_type_key = lower(:truckType) " +
+                   "ORDER BY transporter_id FOR UPDATE",
+           nativeQuery = true)
+    List<TruckCapacitySnapshot> lockCounts(@Param("transporterIds") Collection<UUID> transporterIds,
+                                           @Param("truckType") String truckType);
+}
@@ -0,0 +1,13 @@
+package com.cargopro.tms.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of a transporter's available truck count for one truck type.
+ */
+public interface TruckCapacitySnapshot {
+
+    UUID getTransporterId();
+
+    int getCount();
+}
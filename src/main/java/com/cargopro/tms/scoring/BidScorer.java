@@ -0,0 +1,40 @@
+package com.cargopro.tms.scoring;
+
+/**
+ * Strategy for scoring bids. A higher score means a better bid.
+ *
+ * Scores are linear in the inverse rate and the transporter rating:
+ * score = rateWeight / proposedRate + rating * ratingFactor.
+ * Exposing the coefficients lets the same score be computed by the database.
+ * Implementations are immutable and thread-safe.
+ */
+public interface BidScorer {
+
+    /**
+     * Scores a single bid.
+     *
+     * @param proposedRate The rate proposed in the bid.
+     * @param rating       The rating of the bidding transporter.
+     * @return The bid score.
+     */
+    double score(double proposedRate, double rating);
+
+    /**
+     * Scores a batch of bids. Index i of each array describes the same bid.
+     *
+     * @param proposedRates The rates proposed in the bids.
+     * @param ratings       The ratings of the bidding transporters.
+     * @param scores        Receives the score of each bid; must be at least as long as proposedRates.
+     */
+    void scoreAll(double[] proposedRates, double[] ratings, double[] scores);
+
+    /**
+     * The weight applied to the inverse of the proposed rate.
+     */
+    double rateWeight();
+
+    /**
+     * The factor applied to the raw transporter rating (rating weight / maximum rating).
+     */
+    double ratingFactor();
+}
@@ -0,0 +1,70 @@
+package com.cargopro.tms.scoring;
+
+import com.cargopro.tms.entity.Load;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves the BidScorer for a load.
+ * Every configured profile is compiled once at startup; lookups are plain map reads.
+ * A shipper mapping wins over a truck type mapping, which wins over the default profile.
+ */
+@Component
+public class BidScorerRegistry {
+
+    private final BidScorer defaultScorer;
+    private final Map<String, BidScorer> shipperScorers = new HashMap<>();
+    private final Map<String, BidScorer> truckTypeScorers = new HashMap<>();
+
+    public BidScorerRegistry(ScoringProperties properties) {
+        Map<String, BidScorer> compiled = new HashMap<>();
+        if (properties.profiles() != null) {
+            properties.profiles().forEach((name, profile) ->
+                    compiled.put(name, new WeightedBidScorer(profile.rateWeight(), profile.ratingWeight())));
+        }
+        compiled.putIfAbsent("balanced", WeightedBidScorer.BALANCED);
+
+        this.defaultScorer = lookup(compiled, properties.defaultProfile());
+        if (properties.shipperProfiles() != null) {
+            properties.shipperProfiles().forEach((shipperId, name) ->
+                    shipperScorers.put(shipperId, lookup(compiled, name)));
+        }
+        if (properties.truckTypeProfiles() != null) {
+            properties.truckTypeProfiles().forEach((truckType, name) ->
+                    truckTypeScorers.put(truckType.toLowerCase(Locale.ROOT), lookup(compiled, name)));
+        }
+    }
+
+    /**
+     * Returns the scorer for bids on the given load.
+     *
+     * @param load The load being bid on.
+     * @return The scorer configured for the load's shipper or truck type, or the default scorer.
+     */
+    public BidScorer forLoad(Load load) {
+        return forLoad(load.getShipperId(), load.getTruckType());
+    }
+
+    /**
+     * Returns the scorer for bids on a load with the given shipper and truck type.
+     */
+    public BidScorer forLoad(String shipperId, String truckType) {
+        BidScorer scorer = shipperId != null ? shipperScorers.get(shipperId) : null;
+        if (scorer == null && truckType != null) {
+            scorer = truckTypeScorers.get(truckType.toLowerCase(Locale.ROOT));
+        }
+        return scorer != null ? scorer : defaultScorer;
+    }
+
+    private static BidScorer lookup(Map<String, BidScorer> compiled, String name) {
+        BidScorer scorer = compiled.get(name);
+        if (scorer == null) {
+            throw new IllegalStateException("Unknown bid scoring profile: " + name);
+        }
+        return scorer;
+    }
+}
@@ -0,0 +1,28 @@
+package com.cargopro.tms.scoring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Configuration of bid scoring weight profiles (prefix: tms.scoring).
+ *
+ * @param defaultProfile    Name of the profile used when no shipper or truck type mapping applies.
+ * @param profiles          Weight profiles by name.
+ * @param shipperProfiles   Profile name by shipper ID. Takes precedence over truck type mappings.
+ * @param truckTypeProfiles Profile name by truck type (case-insensitive).
+ */
+@ConfigurationProperties(prefix = "tms.scoring")
+public record ScoringProperties(
+    @DefaultValue("balanced") String defaultProfile,
+    Map<String, WeightProfile> profiles,
+    Map<String, String> shipperProfiles,
+    Map<String, String> truckTypeProfiles
+) {
+
+    /**
+     * Relative weights of the rate and rating components of a bid score.
+     */
+    public record WeightProfile(double rateWeight, double ratingWeight) {}
+}
@@ -0,0 +1,56 @@
+package com.cargopro.tms.scoring;
+
+/**
+ * BidScorer compiled from a weight profile.
+ * The profile weights are folded into two constants once, so scoring a bid
+ * is one division and one multiply-add with no allocation.
+ */
+public final class WeightedBidScorer implements BidScorer {
+
+    /**
+     * Ratings are on a 1-5 scale.
+     */
+    public static final double MAX_RATING = 5.0;
+
+    /**
+     * The original scoring formula: (1/proposedRate) * 0.7 + (rating/5) * 0.3.
+     */
+    public static final WeightedBidScorer BALANCED = new WeightedBidScorer(0.7, 0.3);
+
+    private final double rateWeight;
+    private final double ratingFactor;
+
+    public WeightedBidScorer(double rateWeight, double ratingWeight) {
+        if (rateWeight < 0 || ratingWeight < 0 || rateWeight + ratingWeight == 0) {
+            // A positive weight keeps every real score above zero, which marks an unscored bid.
+            throw new IllegalArgumentException("Scoring weights must not be negative and must not both be zero");
+        }
+        this.rateWeight = rateWeight;
+        this.ratingFactor = ratingWeight / MAX_RATING;
+    }
+
+    @Override
+    public double score(double proposedRate, double rating) {
+        return rateWeight / proposedRate + rating * ratingFactor;
+    }
+
+    @Override
+    public void scoreAll(double[] proposedRates, double[] ratings, double[] scores) {
+        // Plain counted loop over primitive arrays so the JIT can vectorize it.
+        final double w = rateWeight;
+        final double f = ratingFactor;
+        for (int i = 0; i < proposedRates.length; i++) {
+            scores[i] = w / proposedRates[i] + ratings[i] * f;
+        }
+    }
+
+    @Override
+    public double rateWeight() {
+        return rateWeight;
+    }
+
+    @Override
+    public double ratingFactor() {
+        return ratingFactor;
+    }
+}
@@ -0,0 +1,219 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.dto.BidResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory ranking of the best PENDING bids for each open load (POSTED or OPEN_FOR_BIDS).
+ *
+ * Each load keeps at most {@code maxEntriesPerLoad} bids in a skip list ordered by score,
+ * so best-bid reads are served without touching the database. Boards are built lazily from
+ * the database on a cache miss and then kept up to date by the bid and booking services.
+ * All updates are applied after the surrounding transaction commits.
+ *
+ * Only changes made on this instance reach a board, so a board is served for at most
+ * {@code ttl} after it was built and is then rebuilt from the database on the next read. Boards
+ * are held in a Caffeine cache bounded to {@code maxLoads} and dropped after {@code ttl} without
+ * reads, which also clears loads closed on other instances; cache.* metrics are tagged
+ * cache=leaderboard.
+ */
+@Component
+public class BidLeaderboard {
+
+    /**
+     * Ranking order of bids: highest score first, ties broken by bid ID.
+     */
+    static final Comparator<BidResponse> RANKING =
+            Comparator.comparingDouble(BidResponse::score).reversed()
+                    .thenComparing(BidResponse::bidId);
+
+    /**
+     * Source of modification stamps. Stamps are unique across boards, so a rebuild token taken
+     * from an evicted board can never match a board created later for the same load.
+     */
+    private static final AtomicLong STAMPS = new AtomicLong();
+
+    private final ConcurrentMap<UUID, Board> boards;
+    private final int maxEntriesPerLoad;
+    private final long ttlNanos;
+
+    /**
+     * Distinguishes the entity tags of this instance from those of other instances, whose stamps overlap.
+     */
+    private final String instanceTag = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    public BidLeaderboard(MeterRegistry meterRegistry,
+                          @Value("${tms.leaderboard.max-entries-per-load:100}") int maxEntriesPerLoad,
+                          @Value("${tms.leaderboard.max-loads:100000}") long maxLoads,
+                          @Value("${tms.leaderboard.ttl:PT1M}") Duration ttl) {
+        this.maxEntriesPerLoad = maxEntriesPerLoad;
+        this.ttlNanos = ttl.toNanos();
+        Cache<UUID, Board> cache = Caffeine.newBuilder()
+                .maximumSize(maxLoads)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "leaderboard");
+        // The map view keeps the atomic compute operations the board updates rely on.
+        this.boards = cache.asMap();
+    }
+
+    public int getMaxEntriesPerLoad() {
+        return maxEntriesPerLoad;
+    }
+
+    /**
+     * Returns the top bids for a load if the board can answer the request.
+     *
+     * @param loadId The ID of the load.
+     * @param limit  The number of bids requested.
+     * @return The ranked bids, or empty if the board is missing, older than the TTL or holds too few entries.
+     */
+    public Optional<List<BidResponse>> getTop(UUID loadId, int limit) {
+        return getRanking(loadId, limit).map(Ranking::bids);
+    }
+
+    /**
+     * Like {@link #getTop}, but also returns an entity tag for the board state the bids were read from.
+     * The tag is read before the bids and changes whenever the board does, so it is never newer
+     * than the bids it is returned with. Tags include a per-instance prefix and never match a tag
+     * issued by another instance.
+     *
+     * @param loadId The ID of the load.
+     * @param limit  The number of bids requested.
+     * @return The ranked bids and their tag, or empty if the board cannot answer the request.
+     */
+    public Optional<Ranking> getRanking(UUID loadId, int limit) {
+        Board board = boards.get(loadId);
+        if (board == null || !board.isBuilt() || System.nanoTime() - board.builtAt > ttlNanos) {
+            return Optional.empty();
+        }
+        String eTag = "lb-" + instanceTag + "-" + board.modifications;
+        ConcurrentSkipListSet<BidResponse> entries = board.entries;
+        if (limit > entries.size() && !board.complete) {
+            return Optional.empty();
+        }
+        List<BidResponse> top = new ArrayList<>(Math.min(limit, entries.size()));
+        for (BidResponse bid : entries) {
+            if (top.size() == limit) {
+                break;
+            }
+            top.add(bid);
+        }
+        return Optional.of(new Ranking(eTag, top));
+    }
+
+    /**
+     * Returns a token that must be passed to {@link #install} for a rebuild started now.
+     * Any update applied to the load in the meantime makes the rebuild stale.
+     *
+     * @param loadId The ID of the load about to be rebuilt.
+     * @return The current modification stamp of the load.
+     */
+    public long beginRebuild(UUID loadId) {
+        return boards.computeIfAbsent(loadId, id -> new Board()).modifications;
+    }
+
+    /**
+     * Installs a board rebuilt from the database, unless the load changed since {@link #beginRebuild}.
+     *
+     * @param loadId The ID of the load.
+     * @param token  The token returned by beginRebuild.
+     * @param ranked The pending bids, highest score first. Only the first maxEntriesPerLoad are kept;
+     *               the board is marked complete if the list holds no more than that.
+     */
+    public void install(UUID loadId, long token, List<BidResponse> ranked) {
+        boards.computeIfPresent(loadId, (id, board) -> {
+            if (board.modifications == token) {
+                ConcurrentSkipListSet<BidResponse> entries = new ConcurrentSkipListSet<>(RANKING);
+                ranked.stream().limit(maxEntriesPerLoad).forEach(entries::add);
+                board.entries = entries;
+                board.complete = ranked.size() <= maxEntriesPerLoad;
+                board.builtAt = System.nanoTime();
+                board.modifications = STAMPS.incrementAndGet();
+            }
+            return board;
+        });
+    }
+
+    /**
+     * Adds a newly submitted PENDING bid (with its score) once the transaction commits.
+     */
+    public void bidSubmitted(BidResponse bid) {
+        AfterCommit.run(() -> modify(bid.loadId(), board -> {
+            board.entries.add(bid);
+            if (board.entries.size() > maxEntriesPerLoad) {
+                board.entries.pollLast();
+                board.complete = false;
+            }
+        }));
+    }
+
+    /**
+     * Removes a bid that is no longer PENDING (rejected or accepted) once the transaction commits.
+     */
+    public void bidRemoved(UUID loadId, UUID bidId) {
+        AfterCommit.run(() -> modify(loadId, board -> board.entries.removeIf(bid -> bid.bidId().equals(bidId))));
+    }
+
+    /**
+     * Drops the board of a load that moved to BOOKED, CANCELLED or EXPIRED once the transaction
+     * commits, or right away outside a transaction (e.g. a read that found the load closed).
+     */
+    public void evictLoad(UUID loadId) {
+        AfterCommit.run(() -> boards.remove(loadId));
+    }
+
+    private void modify(UUID loadId, Consumer<Board> change) {
+        boards.computeIfPresent(loadId, (id, board) -> {
+            if (board.isBuilt()) {
+                change.accept(board);
+            }
+            // Stamped after the change, so a reader that saw the new stamp also sees the change.
+            board.modifications = STAMPS.incrementAndGet();
+            return board;
+        });
+    }
+
+    /**
+     * Ranking state of a single load. Mutated only inside the map's compute calls.
+     */
+    private static final class Board {
+        private volatile ConcurrentSkipListSet<BidResponse> entries;
+        private volatile boolean complete;
+        private volatile long modifications = STAMPS.incrementAndGet();
+        private volatile long builtAt;
+
+        private boolean isBuilt() {
+            return entries != null;
+        }
+    }
+
+    /**
+     * Top bids of a load as served by the leaderboard, with the entity tag of the board state they were read from.
+     *
+     * @param eTag The entity tag, without quotes.
+     * @param bids The ranked bids, highest score first.
+     */
+    public record Ranking(String eTag, List<BidResponse> bids) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.event.BidsRejectedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Tells transporters that their PENDING bids on a load were rejected because the load was fully
+ * booked or cancelled, so they can release the trucks they had set aside for it.
+ *
+ * Runs only after the rejecting transaction commits, so a rolled-back booking or cancellation
+ * never notifies anyone. Notifications are written to the log and counted as
+ * {@code tms.bids.auto-rejected}, tagged with the status that closed the load.
+ */
+@Component
+public class BidRejectionNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(BidRejectionNotifier.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public BidRejectionNotifier(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @TransactionalEventListener
+    public void onBidsRejected(BidsRejectedEvent event) {
+        log.info("Notifying transporter {}: {} bid(s) on load {} rejected because the load is {}",
+                event.transporterId(), event.bidIds().size(), event.loadId(), event.loadStatus());
+        Counter.builder("tms.bids.auto-rejected")
+                .description("PENDING bids rejected because their load was fully booked or cancelled")
+                .tag("loadStatus", event.loadStatus().name())
+                .register(meterRegistry)
+                .increment(event.bidIds().size());
+    }
+}
@@ -2,68 +2,108 @@ package com.cargopro.tms.service;
 
 import com.cargopro.tms.dto.BidRequest;
 import com.cargopro.tms.dto.BidResponse;
+import com.cargopro.tms.dto.CursorPage;
 import com.cargopro.tms.entity.*;
+import com.cargopro.tms.event.BidsRejectedEvent;
 import com.cargopro.tms.exception.InsufficientCapacityException;
 import com.cargopro.tms.exception.InvalidStatusTransitionException;
+import com.cargopro.tms.exception.LoadBusyException;
 import com.cargopro.tms.exception.ResourceNotFoundException;
 import com.cargopro.tms.repository.BidRepository;
+import com.cargopro.tms.repository.BidSpecifications;
 import com.cargopro.tms.repository.LoadRepository;
-import com.cargopro.tms.repository.TransporterRepository;
+import com.cargopro.tms.repository.RejectedBid;
+import com.cargopro.tms.scoring.BidScorerRegistry;
+import jakarta.persistence.EntityManagerFactory;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing Bids.
  * Handles bid submission, rejection, and retrieval.
+ * Submissions and rejections change the Load's bid set version, so they are serialized with the
+ * bookings of the load through LoadLocks and checked against its version at commit: a bid can
+ * never be left PENDING on a load that a concurrent booking has just filled.
  */
 @Service
 public class BidService {
 
     private final BidRepository bidRepository;
     private final LoadRepository loadRepository;
-    private final TransporterRepository transporterRepository;
+    private final TransporterCache transporterCache;
+    private final BidLeaderboard bidLeaderboard;
+    private final OpenLoadIndex openLoadIndex;
+    private final BidScorerRegistry bidScorerRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoadLocks loadLocks;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
 
-    public BidService(BidRepository bidRepository, LoadRepository loadRepository, TransporterRepository transporterRepository) {
+    public BidService(BidRepository bidRepository, LoadRepository loadRepository, TransporterCache transporterCache,
+                      BidLeaderboard bidLeaderboard, OpenLoadIndex openLoadIndex, BidScorerRegistry bidScorerRegistry,
+                      ApplicationEventPublisher eventPublisher, LoadLocks loadLocks, OptimisticLockRetry optimisticLockRetry,
+                      TransactionTemplate transactionTemplate, EntityManagerFactory entityManagerFactory) {
         this.bidRepository = bidRepository;
         this.loadRepository = loadRepository;
-        this.transporterRepository = transporterRepository;
+        this.transporterCache = transporterCache;
+        this.bidLeaderboard = bidLeaderboard;
+        this.openLoadIndex = openLoadIndex;
+        this.bidScorerRegistry = bidScorerRegistry;
+        this.eventPublisher = eventPublisher;
+        this.loadLocks = loadLocks;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     /**
      * Submits a new bid for a load.
+     * Serialized with other bookings and bids on the same load through LoadLocks.
      *
      * @param request The bid details.
      * @return The created bid response.
      */
-    @Transactional
     public BidResponse submitBid(BidRequest request) {
-        // 1. Fetch Load and Transporter
+        return runLoadTransaction("submit-bid", request.loadId(), () -> doSubmitBid(request));
+    }
+
+    private BidResponse doSubmitBid(BidRequest request) {
+        // 1. Fetch Load and Transporter. The load's status is read under its lock, so a booking
+        // that fills it either committed before (and is seen here) or waits for this bid.
         Load load = loadRepository.findById(request.loadId())
                 .orElseThrow(() -> new ResourceNotFoundException("Load not found with id: " + request.loadId()));
 
-        Transporter transporter = transporterRepository.findById(request.transporterId())
+        TransporterSnapshot transporter = transporterCache.get(request.transporterId())
                 .orElseThrow(() -> new ResourceNotFoundException("Transporter not found with id: " + request.transporterId()));
 
         // 2. Rule 2 (Bid Status Check): Check if the Load's status is valid for bidding.
         // Bids can be placed if status is POSTED or OPEN_FOR_BIDS.
-        if (load.getStatus() == LoadStatus.BOOKED || load.getStatus() == LoadStatus.CANCELLED) {
+        if (load.getStatus() == LoadStatus.BOOKED || load.getStatus() == LoadStatus.CANCELLED
+                || load.getStatus() == LoadStatus.EXPIRED) {
             throw new InvalidStatusTransitionException("Cannot bid on a load that is " + load.getStatus());
         }
 
         // 3. Rule 1 (Capacity Check): Check if transporter has enough trucks of the required type.
         String requiredTruckType = load.getTruckType();
-        int availableCapacity = transporter.getAvailableTrucks().stream()
-                .filter(t -> t.getTruckType().equalsIgnoreCase(requiredTruckType))
-                .mapToInt(TransporterTruckCapacity::getCount)
-                .findFirst()
-                .orElse(0);
+        Integer trucks = transporter.trucksOf(requiredTruckType);
+        int availableCapacity = trucks == null ? 0 : trucks;
 
         if (request.trucksOffered() > availableCapacity) {
             throw new InsufficientCapacityException("Transporter does not have enough " + requiredTruckType + 
@@ -71,7 +111,7 @@ public class BidService {
                                                     ", Requested: " + request.trucksOffered());
         }
 
-        // 4. Create and Save Bid
+        // 4. Create and Save Bid, scored with the load's scoring profile
         Bid bid = new Bid();
         bid.setLoadId(request.loadId());
         bid.setTransporterId(request.transporterId());
@@ -79,26 +119,39 @@ public class BidService {
         bid.setTrucksOffered(request.trucksOffered());
         bid.setStatus(BidStatus.PENDING);
         bid.setSubmittedAt(Timestamp.from(Instant.now()));
+        bid.setScore(bidScorerRegistry.forLoad(load).score(request.proposedRate(), transporter.rating()));
 
         Bid savedBid = bidRepository.save(bid);
+        load.setBidSetVersion(load.getBidSetVersion() + 1);
 
         // 5. Update Load status to OPEN_FOR_BIDS if it was POSTED
         if (load.getStatus() == LoadStatus.POSTED) {
             load.setStatus(LoadStatus.OPEN_FOR_BIDS);
             loadRepository.save(load);
+            openLoadIndex.loadChanged(load);
         }
 
+        // 6. Rank the new bid on the load's leaderboard
+        bidLeaderboard.bidSubmitted(mapEntityToResponse(savedBid, savedBid.getScore()));
+
         return mapEntityToResponse(savedBid);
     }
 
     /**
      * Rejects a specific bid.
+     * Serialized with other bookings and bids on the same load through LoadLocks.
      *
      * @param bidId The ID of the bid to reject.
      * @return The updated bid response.
      */
-    @Transactional
     public BidResponse rejectBid(UUID bidId) {
+        UUID loadId = bidRepository.findLoadIdByBidId(bidId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bid not found with id: " + bidId));
+
+        return runLoadTransaction("reject-bid", loadId, () -> doRejectBid(bidId));
+    }
+
+    private BidResponse doRejectBid(UUID bidId) {
         Bid bid = bidRepository.findById(bidId)
                 .orElseThrow(() -> new ResourceNotFoundException("Bid not found with id: " + bidId));
 
@@ -108,10 +161,38 @@ public class BidService {
 
         bid.setStatus(BidStatus.REJECTED);
         Bid savedBid = bidRepository.save(bid);
+        loadRepository.findById(bid.getLoadId())
+                .ifPresent(load -> load.setBidSetVersion(load.getBidSetVersion() + 1));
+        bidLeaderboard.bidRemoved(savedBid.getLoadId(), savedBid.getBidId());
 
         return mapEntityToResponse(savedBid);
     }
 
+    /**
+     * Rejects every PENDING bid of a load that was just fully booked or cancelled, with one UPDATE
+     * in the caller's transaction, and publishes a BidsRejectedEvent per affected transporter.
+     * Bumps the bid set version of the load, which the caller saves.
+     * The load's bid ranking is expected to be evicted by the caller.
+     *
+     * @param load The load; its status is the reason reported in the events.
+     * @return The number of bids rejected.
+     */
+    @Transactional
+    public int rejectPendingBids(Load load) {
+        List<RejectedBid> rejected = bidRepository.updateStatusByLoadId(load.getLoadId(),
+                BidStatus.PENDING.name(), BidStatus.REJECTED.name());
+        if (!rejected.isEmpty()) {
+            load.setBidSetVersion(load.getBidSetVersion() + 1);
+        }
+
+        Map<UUID, List<UUID>> bidIdsByTransporter = rejected.stream()
+                .collect(Collectors.groupingBy(RejectedBid::getTransporterId,
+                        Collectors.mapping(RejectedBid::getBidId, Collectors.toList())));
+        bidIdsByTransporter.forEach((transporterId, bidIds) -> eventPublisher.publishEvent(
+                new BidsRejectedEvent(transporterId, load.getLoadId(), load.getStatus(), bidIds)));
+        return rejected.size();
+    }
+
     /**
      * Retrieves a bid by its ID.
      *
@@ -136,11 +217,55 @@ public class BidService {
      */
     @Transactional(readOnly = true)
     public Page<BidResponse> getBids(UUID loadId, UUID transporterId, BidStatus status, Pageable pageable) {
-        return bidRepository.findBids(loadId, transporterId, status, pageable)
+        // Only the supplied filters become predicates, so PostgreSQL can pick the matching index.
+        Specification<Bid> spec = Specification.where(BidSpecifications.hasLoadId(loadId))
+                .and(BidSpecifications.hasTransporterId(transporterId))
+                .and(BidSpecifications.hasStatus(status));
+        return bidRepository.findAll(spec, pageable)
                 .map(this::mapEntityToResponse);
     }
 
+    /**
+     * Retrieves bids newest first, one keyset page at a time.
+     * Unlike offset paging, every page costs the same and no total count is computed.
+     *
+     * @param loadId        Optional load ID filter.
+     * @param transporterId Optional transporter ID filter.
+     * @param status        Optional status filter.
+     * @param cursor        The nextCursor of the previous page, or null for the first page.
+     * @param size          The maximum number of bids to return.
+     * @return The page of bid responses and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BidResponse> getBidsByCursor(UUID loadId, UUID transporterId, BidStatus status, String cursor, int size) {
+        Specification<Bid> spec = Specification.where(BidSpecifications.hasLoadId(loadId))
+                .and(BidSpecifications.hasTransporterId(transporterId))
+                .and(BidSpecifications.hasStatus(status));
+        if (cursor != null) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            spec = spec.and(BidSpecifications.submittedBefore(Timestamp.from(position.timestamp()), position.id()));
+        }
+
+        // Fetch one extra row to learn whether another page exists, instead of counting.
+        List<Bid> bids = bidRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "submittedAt", "bidId"))
+                .limit(size + 1)
+                .all());
+
+        String nextCursor = null;
+        if (bids.size() > size) {
+            bids = bids.subList(0, size);
+            Bid last = bids.get(size - 1);
+            nextCursor = new KeysetCursor(last.getSubmittedAt().toInstant(), last.getBidId()).encode();
+        }
+        return new CursorPage<>(bids.stream().map(this::mapEntityToResponse).toList(), nextCursor);
+    }
+
     private BidResponse mapEntityToResponse(Bid bid) {
+        return mapEntityToResponse(bid, null); // Score is only calculated for ranking
+    }
+
+    private BidResponse mapEntityToResponse(Bid bid, Double score) {
         return new BidResponse(
                 bid.getBidId(),
                 bid.getLoadId(),
@@ -149,7 +274,29 @@ public class BidService {
                 bid.getTrucksOffered(),
                 bid.getStatus(),
                 bid.getSubmittedAt(),
-                null // Score is not calculated here, only in LoadService.getBestBids
+                score
         );
     }
+
+    /**
+     * Runs work on a load in its own transaction while holding the load's lock, retrying on
+     * optimistic lock conflicts with a writer on another instance.
+     *
+     * @throws LoadBusyException if the load is still being modified after all retries.
+     */
+    private <T> T runLoadTransaction(String operation, UUID loadId, Supplier<T> work) {
+        try {
+            return optimisticLockRetry.execute(operation, () -> {
+                try {
+                    return loadLocks.withLock(loadId, () -> transactionTemplate.execute(status -> work.get()));
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    // The second-level cache may hold the version this attempt lost against; read the load afresh.
+                    entityManagerFactory.getCache().evict(Load.class, loadId);
+                    throw e;
+                }
+            });
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new LoadBusyException("Load " + loadId + " is being modified concurrently. Please try again.");
+        }
+    }
 }
@@ -1,24 +1,47 @@
 package com.cargopro.tms.service;
 
+import com.cargopro.tms.allocation.AllocationObjective;
+import com.cargopro.tms.allocation.AllocationPlanner;
+import com.cargopro.tms.dto.BatchBookingItemResult;
+import com.cargopro.tms.dto.BatchBookingResponse;
+import com.cargopro.tms.dto.BookingRequest;
 import com.cargopro.tms.dto.BookingResponse;
 import com.cargopro.tms.entity.*;
 import com.cargopro.tms.exception.InsufficientCapacityException;
 import com.cargopro.tms.exception.InvalidStatusTransitionException;
 import com.cargopro.tms.exception.LoadAlreadyBookedException;
+import com.cargopro.tms.exception.LoadBusyException;
 import com.cargopro.tms.exception.ResourceNotFoundException;
 import com.cargopro.tms.repository.BidRepository;
 import com.cargopro.tms.repository.BookingRepository;
 import com.cargopro.tms.repository.LoadRepository;
 import com.cargopro.tms.repository.TransporterRepository;
+import com.cargopro.tms.repository.TransporterTruckCapacityRepository;
+import com.cargopro.tms.repository.TruckCapacitySnapshot;
+import jakarta.persistence.EntityManagerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing Bookings.
@@ -31,58 +54,86 @@ public class BookingService {
     private final BidRepository bidRepository;
     private final LoadRepository loadRepository;
     private final TransporterRepository transporterRepository;
+    private final TransporterTruckCapacityRepository truckCapacityRepository;
+    private final BidLeaderboard bidLeaderboard;
+    private final OpenLoadIndex openLoadIndex;
+    private final TransporterCache transporterCache;
+    private final BidService bidService;
+    private final LoadLocks loadLocks;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean bypassCacheForBooking;
 
-    public BookingService(BookingRepository bookingRepository, BidRepository bidRepository, LoadRepository loadRepository, TransporterRepository transporterRepository) {
+    public BookingService(BookingRepository bookingRepository, BidRepository bidRepository, LoadRepository loadRepository,
+                          TransporterRepository transporterRepository, TransporterTruckCapacityRepository truckCapacityRepository,
+                          BidLeaderboard bidLeaderboard, OpenLoadIndex openLoadIndex, TransporterCache transporterCache,
+                          BidService bidService, LoadLocks loadLocks, OptimisticLockRetry optimisticLockRetry, TransactionTemplate transactionTemplate,
+                          EntityManagerFactory entityManagerFactory,
+                          @Value("${tms.transporter-cache.bypass-for-booking:true}") boolean bypassCacheForBooking) {
         this.bookingRepository = bookingRepository;
         this.bidRepository = bidRepository;
         this.loadRepository = loadRepository;
         this.transporterRepository = transporterRepository;
+        this.truckCapacityRepository = truckCapacityRepository;
+        this.bidLeaderboard = bidLeaderboard;
+        this.openLoadIndex = openLoadIndex;
+        this.transporterCache = transporterCache;
+        this.bidService = bidService;
+        this.loadLocks = loadLocks;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.bypassCacheForBooking = bypassCacheForBooking;
     }
 
     /**
      * Accepts a bid and creates a booking.
-     * This method is transactional and handles optimistic locking.
+     * Bookings on the same load are serialized through LoadLocks before the transaction starts,
+     * so concurrent acceptances queue up instead of conflicting. Optimistic locking on the Load
+     * still guards against bookings made by other application instances; such conflicts are
+     * retried server-side, and 409 is only returned once the load is fully BOOKED.
      *
      * @param bidId           The ID of the bid to accept.
      * @param allocatedTrucks The number of trucks to allocate for this booking.
      * @param finalRate       The final agreed rate.
      * @return The created booking response.
      */
-    @Transactional
     public BookingResponse acceptBidAndCreateBooking(UUID bidId, int allocatedTrucks, double finalRate) {
+        UUID loadId = bidRepository.findLoadIdByBidId(bidId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bid not found with id: " + bidId));
+
+        return runBookingTransaction("accept", loadId, () -> doAcceptBid(bidId, allocatedTrucks, finalRate));
+    }
+
+    private BookingResponse doAcceptBid(UUID bidId, int allocatedTrucks, double finalRate) {
         // 1. Initial Fetch
         Bid bid = bidRepository.findById(bidId)
                 .orElseThrow(() -> new ResourceNotFoundException("Bid not found with id: " + bidId));
-        
-        Load load = loadRepository.findById(bid.getLoadId())
-                .orElseThrow(() -> new ResourceNotFoundException("Load not found with id: " + bid.getLoadId()));
-        
-        Transporter transporter = transporterRepository.findById(bid.getTransporterId())
-                .orElseThrow(() -> new ResourceNotFoundException("Transporter not found with id: " + bid.getTransporterId()));
 
         // 2. Atomic Checks
 
+        // Rule 4 (Concurrency): A fully booked load is the only conflict reported to the client.
+        // Expired and cancelled loads cannot be booked either.
+        Load load = findBookableLoad(bid.getLoadId());
+
+        // Accepted and rejected bids cannot be booked (again), even after a cancellation reopens the load.
+        if (bid.getStatus() != BidStatus.PENDING) {
+            throw new InvalidStatusTransitionException("Bid " + bidId + " is " + bid.getStatus() + " and can no longer be accepted.");
+        }
+
         // Rule 3 (Truck Check): Check if allocatedTrucks doesn't exceed remaining required trucks.
-        List<Booking> confirmedBookings = bookingRepository.findByLoadIdAndStatus(load.getLoadId(), BookingStatus.CONFIRMED);
-        int currentlyAllocated = confirmedBookings.stream().mapToInt(Booking::getAllocatedTrucks).sum();
+        int currentlyAllocated = load.getAllocatedTrucks();
         int remainingRequired = load.getNumOfTrucks() - currentlyAllocated;
 
         if (allocatedTrucks > remainingRequired) {
             throw new InsufficientCapacityException("Cannot allocate " + allocatedTrucks + " trucks. Only " + remainingRequired + " needed for this load.");
         }
 
-        // Rule 1 (Capacity Check): Re-validate transporter capacity.
-        String requiredTruckType = load.getTruckType();
-        TransporterTruckCapacity truckCapacity = transporter.getAvailableTrucks().stream()
-                .filter(t -> t.getTruckType().equalsIgnoreCase(requiredTruckType))
-                .findFirst()
-                .orElseThrow(() -> new InsufficientCapacityException("Transporter has no capacity record for " + requiredTruckType));
-
-        if (truckCapacity.getCount() < allocatedTrucks) {
-            throw new InsufficientCapacityException("Transporter does not have enough " + requiredTruckType + 
-                                                    " trucks. Available: " + truckCapacity.getCount() + 
-                                                    ", Requested: " + allocatedTrucks);
-        }
+        // Rule 1 (Capacity Check + Deduct Trucks): Deduct allocatedTrucks from the Transporter's capacity.
+        // The check and the deduction are a single conditional UPDATE, so concurrent bookings for the
+        // same transporter cannot both pass the check.
+        deductCapacity(bid.getTransporterId(), load.getTruckType(), allocatedTrucks);
 
         // 3. Success Logic
 
@@ -91,47 +142,281 @@ public class BookingService {
         bidRepository.save(bid);
 
         // Create and save Booking
+        Booking savedBooking = bookingRepository.save(newBooking(load, bid, allocatedTrucks, finalRate));
+
+        // Rule 3 (Status Transition): Update the allocation counter and Load status.
+        int rejectedBids = applyAllocation(load, allocatedTrucks, List.of(bid.getBidId()));
+
+        // Rule 4 (Concurrency): The version check on Load runs when the transaction commits (see runBookingTransaction).
+        loadRepository.save(load);
+
+        return mapEntityToResponse(savedBooking, rejectedBids);
+    }
+
+    /**
+     * Accepts several bids on one load in a single transaction.
+     * All items are validated against one snapshot of the load, in request order: an item that
+     * fails validation is reported and skipped, the others are booked together. Transporter
+     * capacity is read once for all bids and deducted with one conditional update per transporter.
+     * The bookings are inserted as one JDBC batch and the Load version is bumped once.
+     *
+     * @param loadId The ID of the load.
+     * @param items  The bids to accept, with their allocated trucks and final rates.
+     * @return The per-item results and the resulting load allocation.
+     */
+    public BatchBookingResponse acceptBidsForLoad(UUID loadId, List<BookingRequest> items) {
+        return runBookingTransaction("batch-accept", loadId, () -> doAcceptBids(loadId, items));
+    }
+
+    private BatchBookingResponse doAcceptBids(UUID loadId, List<BookingRequest> items) {
+        // 1. Initial Fetch: the load, all requested bids and their transporters' capacity
+        Load load = findBookableLoad(loadId);
+
+        Map<UUID, Bid> bidsById = bidRepository.findAllById(items.stream().map(BookingRequest::bidId).toList()).stream()
+                .collect(Collectors.toMap(Bid::getBidId, Function.identity()));
+
+        return bookItems(load, bidsById, findAvailableTrucks(load, bidsById.values()), items);
+    }
+
+    /**
+     * Fills a load from its pending bids and books the chosen allocation in a single transaction.
+     * The allocation is planned by AllocationPlanner from the pending bids, each bid's trucksOffered
+     * and the live capacity of every bidding transporter, all read under the load's lock, and is
+     * then booked exactly like POST /booking:batch.
+     *
+     * @param loadId    The ID of the load.
+     * @param objective Whether to prefer the best scored or the cheapest bids.
+     * @return The booked allocation and the resulting load allocation.
+     */
+    public BatchBookingResponse autoAllocate(UUID loadId, AllocationObjective objective) {
+        return runBookingTransaction("auto-allocate", loadId, () -> doAutoAllocate(loadId, objective));
+    }
+
+    private BatchBookingResponse doAutoAllocate(UUID loadId, AllocationObjective objective) {
+        Load load = findBookableLoad(loadId);
+
+        List<Bid> pendingBids = bidRepository.findByLoadIdAndStatusOrderByScoreDesc(loadId, BidStatus.PENDING, Limit.unlimited());
+        Map<UUID, Integer> availableTrucks = findAvailableTrucks(load, pendingBids);
+        List<BookingRequest> plan = AllocationPlanner.plan(pendingBids, availableTrucks,
+                load.getNumOfTrucks() - load.getAllocatedTrucks(), objective);
+
+        Map<UUID, Bid> bidsById = pendingBids.stream().collect(Collectors.toMap(Bid::getBidId, Function.identity()));
+        return bookItems(load, bidsById, availableTrucks, plan);
+    }
+
+    private Load findBookableLoad(UUID loadId) {
+        Load load = loadRepository.findById(loadId)
+                .orElseThrow(() -> new ResourceNotFoundException("Load not found with id: " + loadId));
+
+        if (load.getStatus() == LoadStatus.BOOKED) {
+            throw new LoadAlreadyBookedException("Load " + loadId + " is already fully booked.");
+        }
+        if (load.getStatus() == LoadStatus.EXPIRED) {
+            throw new InvalidStatusTransitionException("Cannot book a load whose bidding has expired.");
+        }
+        if (load.getStatus() == LoadStatus.CANCELLED) {
+            throw new InvalidStatusTransitionException("Cannot book a cancelled load.");
+        }
+        return load;
+    }
+
+    /**
+     * Reads the available trucks of the load's truck type for the transporters of some bids, in one query.
+     * With tms.transporter-cache.bypass-for-booking=false the cached transporter snapshots are used
+     * instead; the conditional deduction still rejects items whose cached count was too high.
+     */
+    private Map<UUID, Integer> findAvailableTrucks(Load load, Collection<Bid> bids) {
+        Map<UUID, Integer> availableTrucks = new HashMap<>();
+        if (bids.isEmpty()) {
+            return availableTrucks;
+        }
+        Set<UUID> transporterIds = bids.stream().map(Bid::getTransporterId).collect(Collectors.toSet());
+        if (bypassCacheForBooking) {
+            truckCapacityRepository.findCounts(transporterIds, load.getTruckType())
+                    .forEach(c -> availableTrucks.put(c.getTransporterId(), c.getCount()));
+        } else {
+            transporterIds.forEach(transporterId -> transporterCache.get(transporterId)
+                    .map(snapshot -> snapshot.trucksOf(load.getTruckType()))
+                    .ifPresent(count -> availableTrucks.put(transporterId, count)));
+        }
+        return availableTrucks;
+    }
+
+    /**
+     * Validates and books a list of items against one snapshot of a load, its bids and the available trucks.
+     */
+    private BatchBookingResponse bookItems(Load load, Map<UUID, Bid> bidsById, Map<UUID, Integer> availableTrucks,
+                                           List<BookingRequest> items) {
+        UUID loadId = load.getLoadId();
+
+        // 2. Checks against the snapshot, in request order
+        String[] errors = new String[items.size()];
+        Set<UUID> seenBidIds = new HashSet<>();
+        int remainingRequired = load.getNumOfTrucks() - load.getAllocatedTrucks();
+        for (int i = 0; i < items.size(); i++) {
+            BookingRequest item = items.get(i);
+            Bid bid = bidsById.get(item.bidId());
+            Integer available = bid == null ? null : availableTrucks.get(bid.getTransporterId());
+            if (bid == null) {
+                errors[i] = "Bid not found with id: " + item.bidId();
+            } else if (!bid.getLoadId().equals(loadId)) {
+                errors[i] = "Bid " + item.bidId() + " does not belong to load " + loadId + ".";
+            } else if (!seenBidIds.add(item.bidId())) {
+                errors[i] = "Bid " + item.bidId() + " appears more than once in the batch.";
+            } else if (bid.getStatus() != BidStatus.PENDING) {
+                // Accepted and rejected bids cannot be booked (again).
+                errors[i] = "Bid " + item.bidId() + " is " + bid.getStatus() + " and can no longer be accepted.";
+            } else if (item.allocatedTrucks() > remainingRequired) {
+                // Rule 3 (Truck Check)
+                errors[i] = "Cannot allocate " + item.allocatedTrucks() + " trucks. Only " + remainingRequired + " needed for this load.";
+            } else if (available == null) {
+                // Rule 1 (Capacity Check)
+                errors[i] = "Transporter has no capacity record for " + load.getTruckType();
+            } else if (item.allocatedTrucks() > available) {
+                errors[i] = "Transporter does not have enough " + load.getTruckType() +
+                            " trucks. Available: " + available + ", Requested: " + item.allocatedTrucks();
+            } else {
+                remainingRequired -= item.allocatedTrucks();
+                availableTrucks.put(bid.getTransporterId(), available - item.allocatedTrucks());
+            }
+        }
+
+        // Rule 1 (Deduct Trucks): one UPDATE for all transporters, under row locks. A transporter
+        // only fails if its capacity changed concurrently since the snapshot, in which case its items fail.
+        Map<UUID, List<Integer>> itemsByTransporter = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (errors[i] == null) {
+                itemsByTransporter.computeIfAbsent(bidsById.get(items.get(i).bidId()).getTransporterId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<UUID, Integer> trucksByTransporter = new LinkedHashMap<>();
+        itemsByTransporter.forEach((transporterId, indexes) ->
+                trucksByTransporter.put(transporterId, indexes.stream().mapToInt(i -> items.get(i).allocatedTrucks()).sum()));
+        deductCapacities(trucksByTransporter, load.getTruckType()).forEach((transporterId, error) ->
+                itemsByTransporter.get(transporterId).forEach(i -> errors[i] = error));
+
+        // 3. Success Logic: accept the bids and insert the bookings in one batch
+        List<Bid> acceptedBids = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (errors[i] == null) {
+                BookingRequest item = items.get(i);
+                Bid bid = bidsById.get(item.bidId());
+                bid.setStatus(BidStatus.ACCEPTED);
+                acceptedBids.add(bid);
+                bookings.add(newBooking(load, bid, item.allocatedTrucks(), item.finalRate()));
+            }
+        }
+        bidRepository.saveAll(acceptedBids);
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+
+        int rejectedBids = 0;
+        if (!savedBookings.isEmpty()) {
+            rejectedBids = applyAllocation(load, savedBookings.stream().mapToInt(Booking::getAllocatedTrucks).sum(),
+                    acceptedBids.stream().map(Bid::getBidId).toList());
+
+            // Rule 4 (Concurrency): One version bump for the whole batch, checked at commit.
+            loadRepository.save(load);
+        }
+
+        List<BatchBookingItemResult> results = new ArrayList<>(items.size());
+        Iterator<Booking> saved = savedBookings.iterator();
+        for (int i = 0; i < items.size(); i++) {
+            UUID bidId = items.get(i).bidId();
+            results.add(errors[i] == null
+                    ? new BatchBookingItemResult(bidId, true, mapEntityToResponse(saved.next()), null)
+                    : new BatchBookingItemResult(bidId, false, null, errors[i]));
+        }
+        return new BatchBookingResponse(loadId, load.getStatus(), load.getNumOfTrucks(), load.getAllocatedTrucks(), results,
+                rejectedBids);
+    }
+
+    /**
+     * Builds a CONFIRMED booking for an accepted bid.
+     */
+    private Booking newBooking(Load load, Bid bid, int allocatedTrucks, double finalRate) {
         Booking booking = new Booking();
         booking.setLoadId(load.getLoadId());
         booking.setBidId(bid.getBidId());
-        booking.setTransporterId(transporter.getTransporterId());
+        booking.setTransporterId(bid.getTransporterId());
         booking.setAllocatedTrucks(allocatedTrucks);
         booking.setFinalRate(finalRate);
         booking.setStatus(BookingStatus.CONFIRMED);
         booking.setBookedAt(Timestamp.from(Instant.now()));
-        Booking savedBooking = bookingRepository.save(booking);
+        return booking;
+    }
+
+    /**
+     * Adds newly booked trucks to the Load's allocation counter and moves its status.
+     * Rule 3 (Status Transition): The load becomes BOOKED once all trucks are allocated,
+     * and its remaining PENDING bids are rejected.
+     *
+     * @return The number of bids rejected because the load became BOOKED.
+     */
+    private int applyAllocation(Load load, int allocatedTrucks, List<UUID> acceptedBidIds) {
+        // Keep the Load's allocation counter in step with its confirmed bookings.
+        return setAllocation(load, load.getAllocatedTrucks() + allocatedTrucks, acceptedBidIds);
+    }
+
+    /**
+     * Sets a Load's allocation counter to the trucks its confirmed bookings allocate, as found by
+     * reconciliation, and moves its status the way a booking would: BOOKED (rejecting the remaining
+     * PENDING bids) when all trucks are allocated, otherwise OPEN_FOR_BIDS. A POSTED load with no
+     * allocation stays POSTED, and cancelled or expired loads keep their status.
+     * The caller must hold the load's lock and a transaction; the Load is saved with it.
+     *
+     * @param load            The load to repair.
+     * @param confirmedTrucks The trucks allocated by the load's CONFIRMED bookings.
+     * @return The number of bids rejected because the load became BOOKED.
+     */
+    public int reconcileAllocation(Load load, int confirmedTrucks) {
+        LoadStatus status = load.getStatus();
+        if (status == LoadStatus.CANCELLED || status == LoadStatus.EXPIRED
+                || (status == LoadStatus.POSTED && confirmedTrucks == 0)) {
+            load.setAllocatedTrucks(confirmedTrucks);
+            openLoadIndex.loadChanged(load);
+            return 0;
+        }
+        return setAllocation(load, confirmedTrucks, List.of());
+    }
 
-        // Rule 1 (Deduct Trucks): Deduct allocatedTrucks from Transporter's capacity.
-        truckCapacity.setCount(truckCapacity.getCount() - allocatedTrucks);
-        transporterRepository.save(transporter);
+    private int setAllocation(Load load, int allocatedTrucks, List<UUID> acceptedBidIds) {
+        load.setAllocatedTrucks(allocatedTrucks);
+        if (!acceptedBidIds.isEmpty()) {
+            load.setBidSetVersion(load.getBidSetVersion() + 1);
+        }
 
-        // Rule 3 (Status Transition): Update Load status if fully booked.
-        if (currentlyAllocated + allocatedTrucks == load.getNumOfTrucks()) {
+        int rejectedBids = 0;
+        if (load.getAllocatedTrucks() >= load.getNumOfTrucks()) {
             load.setStatus(LoadStatus.BOOKED);
+            // The accepted bids are flushed as ACCEPTED before the rejecting UPDATE runs.
+            rejectedBids = bidService.rejectPendingBids(load);
+            bidLeaderboard.evictLoad(load.getLoadId());
         } else {
             // Ensure it's OPEN_FOR_BIDS if partially booked (it might have been POSTED)
             load.setStatus(LoadStatus.OPEN_FOR_BIDS);
+            acceptedBidIds.forEach(bidId -> bidLeaderboard.bidRemoved(load.getLoadId(), bidId));
         }
-
-        // Rule 4 (Concurrency): Handle Optimistic Locking
-        try {
-            loadRepository.save(load);
-        } catch (ObjectOptimisticLockingFailureException e) {
-            throw new LoadAlreadyBookedException("Load was modified or booked by another transaction. Please refresh and try again.");
-        }
-
-        return mapEntityToResponse(savedBooking);
+        openLoadIndex.loadChanged(load);
+        return rejectedBids;
     }
 
     /**
      * Cancels a booking.
      * Restores truck capacity and updates load status.
+     * Serialized with other bookings on the same load through LoadLocks.
      *
      * @param bookingId The ID of the booking to cancel.
      * @return The updated booking response.
      */
-    @Transactional
     public BookingResponse cancelBooking(UUID bookingId) {
+        UUID loadId = bookingRepository.findLoadIdByBookingId(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+
+        return runBookingTransaction("cancel", loadId, () -> doCancelBooking(bookingId));
+    }
+
+    private BookingResponse doCancelBooking(UUID bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
 
@@ -142,30 +427,30 @@ public class BookingService {
         Load load = loadRepository.findById(booking.getLoadId())
                 .orElseThrow(() -> new ResourceNotFoundException("Load not found with id: " + booking.getLoadId()));
 
-        Transporter transporter = transporterRepository.findById(booking.getTransporterId())
-                .orElseThrow(() -> new ResourceNotFoundException("Transporter not found with id: " + booking.getTransporterId()));
-
-        // Rule 1 (Restore Trucks): Add allocatedTrucks back to Transporter's capacity.
-        String requiredTruckType = load.getTruckType();
-        TransporterTruckCapacity truckCapacity = transporter.getAvailableTrucks().stream()
-                .filter(t -> t.getTruckType().equalsIgnoreCase(requiredTruckType))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Capacity record not found for restoration.")); // Should ideally not happen
-
-        truckCapacity.setCount(truckCapacity.getCount() + booking.getAllocatedTrucks());
-        transporterRepository.save(transporter);
+        // Rule 1 (Restore Trucks): Add allocatedTrucks back to Transporter's capacity, atomically.
+        int restored = truckCapacityRepository.incrementCount(booking.getTransporterId(), load.getTruckType(), booking.getAllocatedTrucks());
+        if (restored == 0) {
+            throw new ResourceNotFoundException("Capacity record not found for restoration."); // Should ideally not happen
+        }
+        transporterCache.transporterChanged(booking.getTransporterId());
 
         // Rule 2 (Status Transition): Set Booking to CANCELLED.
         booking.setStatus(BookingStatus.CANCELLED);
         Booking savedBooking = bookingRepository.save(booking);
 
+        // Release the trucks from the Load's allocation counter.
+        load.setAllocatedTrucks(Math.max(0, load.getAllocatedTrucks() - booking.getAllocatedTrucks()));
+
         // Update Load status
         // If the load was BOOKED, it should now be OPEN_FOR_BIDS as capacity is freed up.
         // If it was already OPEN_FOR_BIDS (partial booking), it stays OPEN_FOR_BIDS.
         if (load.getStatus() == LoadStatus.BOOKED) {
             load.setStatus(LoadStatus.OPEN_FOR_BIDS);
-            loadRepository.save(load);
         }
+
+        // Rule 4 (Concurrency): The version check on Load runs when the transaction commits.
+        loadRepository.save(load);
+        openLoadIndex.loadChanged(load);
         
         // Note: If all bookings are cancelled, we might want to set it back to POSTED or OPEN_FOR_BIDS.
         // The requirement says "revert... back to OPEN_FOR_BIDS", which covers both cases effectively for bidding.
@@ -186,7 +471,96 @@ public class BookingService {
         return mapEntityToResponse(booking);
     }
 
+    /**
+     * Deducts trucks from a transporter's capacity with a conditional UPDATE.
+     * When no row is updated, the current state is read once to report why.
+     */
+    private void deductCapacity(UUID transporterId, String truckType, int allocatedTrucks) {
+        if (truckCapacityRepository.decrementCount(transporterId, truckType, allocatedTrucks) > 0) {
+            transporterCache.transporterChanged(transporterId);
+            return;
+        }
+        if (!transporterRepository.existsById(transporterId)) {
+            throw new ResourceNotFoundException("Transporter not found with id: " + transporterId);
+        }
+        int available = truckCapacityRepository.findCount(transporterId, truckType)
+                .orElseThrow(() -> new InsufficientCapacityException("Transporter has no capacity record for " + truckType));
+        throw new InsufficientCapacityException("Transporter does not have enough " + truckType +
+                                                " trucks. Available: " + available +
+                                                ", Requested: " + allocatedTrucks);
+    }
+
+    /**
+     * Deducts trucks from several transporters' capacities for one truck type. The capacity records
+     * are locked and checked first, then every transporter with enough trucks is deducted in one UPDATE,
+     * instead of one conditional UPDATE (and one flush of the persistence context) per transporter.
+     *
+     * @return The error of each transporter that could not be deducted, with the messages of deductCapacity.
+     */
+    private Map<UUID, String> deductCapacities(Map<UUID, Integer> trucksByTransporter, String truckType) {
+        Map<UUID, String> errors = new LinkedHashMap<>();
+        if (trucksByTransporter.isEmpty()) {
+            return errors;
+        }
+        Map<UUID, Integer> available = new HashMap<>();
+        for (TruckCapacitySnapshot snapshot : truckCapacityRepository.lockCounts(trucksByTransporter.keySet(), truckType)) {
+            available.put(snapshot.getTransporterId(), snapshot.getCount());
+        }
+        List<UUID> deducted = new ArrayList<>(trucksByTransporter.size());
+        trucksByTransporter.forEach((transporterId, trucks) -> {
+            Integer count = available.get(transporterId);
+            if (count == null) {
+                errors.put(transporterId, transporterRepository.existsById(transporterId)
+                        ? "Transporter has no capacity record for " + truckType
+                        : "Transporter not found with id: " + transporterId);
+            } else if (count < trucks) {
+                errors.put(transporterId, "Transporter does not have enough " + truckType +
+                                          " trucks. Available: " + count + ", Requested: " + trucks);
+            } else {
+                deducted.add(transporterId);
+            }
+        });
+        if (deducted.isEmpty()) {
+            return errors;
+        }
+        int[] trucks = deducted.stream().mapToInt(trucksByTransporter::get).toArray();
+        int updated = truckCapacityRepository.decrementCounts(deducted.toArray(UUID[]::new), trucks, truckType);
+        if (updated != deducted.size()) {
+            // The rows are locked and were checked above, so this only happens if the schema changed underneath.
+            throw new IllegalStateException("Deducted " + updated + " of " + deducted.size() + " capacity records.");
+        }
+        deducted.forEach(transporterCache::transporterChanged);
+        return errors;
+    }
+
+    /**
+     * Runs booking work on a load in its own transaction.
+     * Rule 4 (Concurrency): Handle Optimistic Locking. Each attempt holds the load's lock, and the
+     * Load version is checked when the transaction commits. An attempt that loses a version race
+     * against another instance is re-run from scratch after a jittered backoff, releasing the lock
+     * in between; if every attempt conflicts the client is asked to retry later.
+     */
+    private <T> T runBookingTransaction(String operation, UUID loadId, Supplier<T> work) {
+        try {
+            return optimisticLockRetry.execute(operation, () -> {
+                try {
+                    return loadLocks.withLock(loadId, () -> transactionTemplate.execute(status -> work.get()));
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    // The second-level cache may hold the version this attempt lost against; read the load afresh.
+                    entityManagerFactory.getCache().evict(Load.class, loadId);
+                    throw e;
+                }
+            });
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new LoadBusyException("Load " + loadId + " is being modified concurrently. Please try again.");
+        }
+    }
+
     private BookingResponse mapEntityToResponse(Booking booking) {
+        return mapEntityToResponse(booking, 0);
+    }
+
+    private BookingResponse mapEntityToResponse(Booking booking, int rejectedBids) {
         return new BookingResponse(
                 booking.getBookingId(),
                 booking.getLoadId(),
@@ -195,7 +569,8 @@ public class BookingService {
                 booking.getAllocatedTrucks(),
                 booking.getFinalRate(),
                 booking.getStatus(),
-                booking.getBookedAt()
+                booking.getBookedAt(),
+                rejectedBids
         );
     }
 }
@@ -0,0 +1,146 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.repository.BidRepository;
+import com.cargopro.tms.repository.BookingRepository;
+import com.cargopro.tms.repository.LoadRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service class for full and incremental NDJSON exports of loads, bids and bookings.
+ *
+ * Rows are read through a forward-only JPA stream (a server-side cursor fetching 1000 rows at a
+ * time) in a read-only transaction and written one JSON object per line. The persistence context
+ * is cleared every {@code clearInterval} rows, so the heap stays flat however many rows are exported.
+ * The session neither reads nor fills the second-level cache, so an export does not push the hot
+ * loads out of the Load region.
+ */
+@Service
+public class ExportService {
+
+    /**
+     * Exportable record types; the name in lower case is the path segment of GET /export/{type}.
+     */
+    public enum ExportType {
+        LOADS,
+        BIDS,
+        BOOKINGS
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final LoadRepository loadRepository;
+    private final BidRepository bidRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter rowWriter;
+    private final int clearInterval;
+
+    public ExportService(LoadRepository loadRepository, BidRepository bidRepository, BookingRepository bookingRepository,
+                         EntityManager entityManager, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                         @Value("${tms.export.clear-interval:1000}") int clearInterval) {
+        this.loadRepository = loadRepository;
+        this.bidRepository = bidRepository;
+        this.bookingRepository = bookingRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Flushing after every row would send one network packet per row.
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.clearInterval = clearInterval;
+    }
+
+    /**
+     * Writes every record of a type created at or after {@code since} as NDJSON, oldest first.
+     * Loads are selected by datePosted, bids by submittedAt and bookings by bookedAt; status
+     * changes of older records are not included in an incremental export.
+     *
+     * @param type  The record type.
+     * @param since The earliest creation time to include, or null for a full export.
+     * @param gzip  Whether to gzip the output.
+     * @param out   The stream to write to; it is not closed.
+     * @return The number of records written.
+     */
+    public long export(ExportType type, Instant since, boolean gzip, OutputStream out) {
+        long started = System.nanoTime();
+        Timestamp from = Timestamp.from(since != null ? since : Instant.EPOCH);
+        Long written = readOnlyTransaction.execute(status -> {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            try (Stream<?> rows = stream(type, from)) {
+                return write(rows, gzip, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Export of " + type + " failed", e);
+            }
+        });
+        log.info("Exported {} {} since {} in {} ms", written, type, from.toInstant(), (System.nanoTime() - started) / 1_000_000);
+        return written;
+    }
+
+    private Stream<?> stream(ExportType type, Timestamp since) {
+        return switch (type) {
+            case LOADS -> loadRepository.streamPostedSince(since);
+            case BIDS -> bidRepository.streamSubmittedSince(since);
+            case BOOKINGS -> bookingRepository.streamBookedSince(since);
+        };
+    }
+
+    private long write(Stream<?> rows, boolean gzip, OutputStream out) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(nonClosing(out), BUFFER_SIZE) : null;
+        long written = 0;
+        try (OutputStream buffered = new BufferedOutputStream(compressed != null ? compressed : nonClosing(out), BUFFER_SIZE);
+             JsonGenerator generator = rowWriter.createGenerator(buffered)) {
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++written % clearInterval == 0) {
+                    // Exported rows are not needed again; drop them from the persistence context.
+                    entityManager.clear();
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Keeps the response stream open when the writers wrapping it are closed.
+     */
+    private static OutputStream nonClosing(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,234 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.exception.IdempotencyKeyReusedException;
+import com.cargopro.tms.exception.RequestInProgressException;
+import com.cargopro.tms.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Service class for answering retried requests that carry an Idempotency-Key.
+ *
+ * Completed responses are kept in a size- and TTL-bounded in-memory cache and in the
+ * idempotency_records table, so a repeat is answered without running the request again, also
+ * when it reaches another instance. A duplicate that arrives while the first request is still
+ * running on this instance waits for its outcome instead of racing it. Failed requests are not
+ * stored, so they can be retried with the same key. Each response is stored with a hash of its
+ * request body; reusing a key for a different body is rejected instead of replaying the response.
+ */
+@Service
+public class IdempotencyService {
+
+    /**
+     * Response header set on replayed responses.
+     */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentHashMap<String, Execution> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final long inFlightWaitMillis;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                              @Value("${tms.idempotency.max-entries:10000}") long maxEntries,
+                              @Value("${tms.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${tms.idempotency.in-flight-wait-ms:10000}") long inFlightWaitMillis) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+        this.ttl = ttl;
+        this.inFlightWaitMillis = inFlightWaitMillis;
+    }
+
+    /**
+     * Runs a request at most once per Idempotency-Key.
+     *
+     * @param operation      Name of the operation; keys are only unique within an operation.
+     * @param idempotencyKey The client-supplied key, or null to simply run the request.
+     * @param request        The request body; a repeat must send an equal one.
+     * @param bodyType       The response body type, used to read responses stored by other instances.
+     * @param action         The request to run.
+     * @return The response of the first successful run, replayed for duplicates.
+     * @throws RequestInProgressException if a duplicate waited too long for the first run.
+     * @throws IdempotencyKeyReusedException if the key was used for a different request body.
+     */
+    public <T> ResponseEntity<T> execute(String operation, String idempotencyKey, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String key = operation + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        StoredResponse stored = completed.getIfPresent(key);
+        if (stored != null) {
+            return replay(stored, requestHash, idempotencyKey);
+        }
+
+        Execution execution = new Execution(requestHash, new CompletableFuture<>());
+        Execution running = inFlight.putIfAbsent(key, execution);
+        if (running != null) {
+            requireSameRequest(running.requestHash(), requestHash, idempotencyKey);
+            return replay(await(running.outcome(), idempotencyKey), requestHash, idempotencyKey);
+        }
+
+        try {
+            // The first run may have completed between the cache check and registering this one.
+            stored = completed.getIfPresent(key);
+            if (stored == null) {
+                stored = findStored(key, bodyType);
+            }
+            if (stored != null) {
+                completed.put(key, stored);
+                execution.outcome().complete(stored);
+                return replay(stored, requestHash, idempotencyKey);
+            }
+
+            ResponseEntity<T> response = action.get();
+            stored = new StoredResponse(requestHash, response.getStatusCode().value(), response.getBody());
+            persist(key, stored);
+            completed.put(key, stored);
+            execution.outcome().complete(stored);
+            return response;
+        } catch (RuntimeException e) {
+            execution.outcome().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, execution);
+        }
+    }
+
+    /**
+     * Waits for the outcome of the first run; a failure is rethrown to the duplicate as well.
+     */
+    private StoredResponse await(CompletableFuture<StoredResponse> running, String idempotencyKey) {
+        try {
+            return running.get(inFlightWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RequestInProgressException("A request with Idempotency-Key " + idempotencyKey + " is still in progress. Please retry.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestInProgressException("Interrupted while waiting for the request with Idempotency-Key " + idempotencyKey + ".");
+        }
+    }
+
+    private StoredResponse findStored(String key, Class<?> bodyType) {
+        try {
+            return idempotencyRecordRepository
+                    .findByIdempotencyKeyAndCreatedAtAfter(key, Timestamp.from(Instant.now().minus(ttl)))
+                    .map(record -> new StoredResponse(record.getRequestHash(), record.getStatusCode(),
+                            readBody(record.getResponseBody(), bodyType)))
+                    .orElse(null);
+        } catch (DataAccessException | JsonReadException e) {
+            log.warn("Could not read stored response for idempotency key {}; running the request", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the response for other instances. A failure here only loses the cross-instance
+     * fallback, so it is logged instead of failing a request that already succeeded.
+     */
+    private void persist(String key, StoredResponse stored) {
+        try {
+            Instant now = Instant.now();
+            int inserted = idempotencyRecordRepository.insertIfAbsent(key, stored.requestHash(), stored.status(),
+                    objectMapper.writeValueAsString(stored.body()), Timestamp.from(now), Timestamp.from(now.minus(ttl)));
+            if (inserted == 0) {
+                // Another instance ran the same key concurrently and stored its response first.
+                log.warn("Response for idempotency key {} was already stored by a concurrent request; keeping the first", key);
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not store response for idempotency key {}", key, e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash the request for its Idempotency-Key", e);
+        }
+    }
+
+    /**
+     * Rejects a repeat whose body differs from the request the key was first used for.
+     * Records stored without a hash are accepted.
+     */
+    private static void requireSameRequest(String originalHash, String requestHash, String idempotencyKey) {
+        if (originalHash != null && !Objects.equals(originalHash, requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key " + idempotencyKey
+                    + " was already used for a different request. Use a new key for a new request.");
+        }
+    }
+
+    private Object readBody(String json, Class<?> bodyType) {
+        try {
+            return json == null ? null : objectMapper.readValue(json, bodyType);
+        } catch (JsonProcessingException e) {
+            throw new JsonReadException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, String idempotencyKey) {
+        requireSameRequest(stored.requestHash(), requestHash, idempotencyKey);
+        return ResponseEntity.status(stored.status())
+                .header(REPLAYED_HEADER, "true")
+                .body((T) stored.body());
+    }
+
+    /**
+     * A completed response: the hash of its request, its status code and body.
+     */
+    private record StoredResponse(String requestHash, int status, Object body) {
+    }
+
+    /**
+     * A run in progress on this instance: the hash of its request and its eventual outcome.
+     */
+    private record Execution(String requestHash, CompletableFuture<StoredResponse> outcome) {
+    }
+
+    private static class JsonReadException extends RuntimeException {
+        JsonReadException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.dto.LoadImportError;
+import com.cargopro.tms.dto.LoadImportResponse;
+import com.cargopro.tms.dto.LoadRequest;
+import com.cargopro.tms.entity.Load;
+import com.cargopro.tms.entity.LoadStatus;
+import com.cargopro.tms.repository.LoadRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for importing many loads from one uploaded file.
+ *
+ * The file is read one line at a time and each row is checked against the LoadRequest
+ * validation constraints, so memory use does not grow with the file. Valid rows are inserted
+ * in chunks of {@code batchSize}, each chunk in its own transaction and sent to the database as
+ * JDBC batches of the same size. Rejected rows are reported by line number and do not stop the
+ * import. A chunk that fails to insert is retried one row per transaction, so the rows that
+ * insert are kept and each failing row is reported with its own error.
+ */
+@Service
+public class LoadImportService {
+
+    /**
+     * Supported file formats.
+     */
+    public enum Format {
+        /**
+         * Comma-separated values; the first line names the LoadRequest fields in any order.
+         * Quoted values may contain commas but not line breaks.
+         */
+        CSV,
+        /**
+         * Newline-delimited JSON; one LoadRequest object per line.
+         */
+        NDJSON
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(LoadImportService.class);
+
+    private final LoadRepository loadRepository;
+    private final OpenLoadIndex openLoadIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public LoadImportService(LoadRepository loadRepository, OpenLoadIndex openLoadIndex, Validator validator,
+                             ObjectMapper objectMapper, EntityManager entityManager, TransactionTemplate transactionTemplate,
+                             @Value("${tms.import.batch-size:500}") int batchSize,
+                             @Value("${tms.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.loadRepository = loadRepository;
+        this.openLoadIndex = openLoadIndex;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.csvMapper = new CsvMapper();
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Imports the loads of an uploaded file. Imported loads start as POSTED, like loads created
+     * one at a time.
+     *
+     * @param body   The file contents, UTF-8 encoded.
+     * @param format The file format.
+     * @return The number of rows read, imported and rejected, the first errors and the throughput.
+     */
+    public LoadImportResponse importLoads(InputStream body, Format format) {
+        long started = System.nanoTime();
+        Import run = new Import();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            ObjectReader rowReader = format == Format.NDJSON ? objectMapper.readerFor(LoadRequest.class) : null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (rowReader == null) {
+                    // The first CSV line is the header and defines the column order.
+                    rowReader = csvMapper.readerFor(LoadRequest.class).with(csvSchema(line));
+                    continue;
+                }
+                run.rowsRead++;
+                LoadRequest request = parse(rowReader, line, lineNumber, run);
+                if (request != null) {
+                    run.pending.add(new PendingRow(lineNumber, request));
+                    if (run.pending.size() == batchSize) {
+                        insert(run);
+                    }
+                }
+            }
+            insert(run);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the uploaded file", e);
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        double rowsPerSecond = elapsedMillis == 0 ? run.imported : run.imported * 1000.0 / elapsedMillis;
+        log.info("Imported {} of {} loads in {} ms ({} rows/s)", run.imported, run.rowsRead, elapsedMillis, Math.round(rowsPerSecond));
+        return new LoadImportResponse(run.rowsRead, run.imported, run.failed, run.errors,
+                run.failed > run.errors.size(), elapsedMillis, rowsPerSecond);
+    }
+
+    private CsvSchema csvSchema(String header) {
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : header.split(",")) {
+            schema.addColumn(column.trim());
+        }
+        return schema.build();
+    }
+
+    private LoadRequest parse(ObjectReader rowReader, String line, long lineNumber, Import run) {
+        LoadRequest request;
+        try {
+            request = rowReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            run.reject(lineNumber, "Malformed row: " + e.getOriginalMessage());
+            return null;
+        }
+        Set<ConstraintViolation<LoadRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            run.reject(lineNumber, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+        return request;
+    }
+
+    private Load toLoad(LoadRequest request) {
+        Load load = new Load();
+        LoadServiceImpl.mapRequestToEntity(request, load);
+        load.setStatus(LoadStatus.POSTED);
+        load.setDatePosted(Timestamp.from(Instant.now()));
+        return load;
+    }
+
+    /**
+     * Inserts the pending rows in one transaction. Load IDs are generated in memory, so
+     * Hibernate can send the INSERTs as JDBC batches of batchSize rows. If the chunk fails,
+     * its rows are inserted again one at a time to find the ones that caused the failure.
+     */
+    private void insert(Import run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<PendingRow> chunk = run.pending;
+        run.pending = new ArrayList<>(batchSize);
+        try {
+            save(chunk);
+            run.imported += chunk.size();
+        } catch (DataAccessException e) {
+            log.warn("Could not insert {} imported loads in one batch; inserting them one by one", chunk.size(), e);
+            for (PendingRow row : chunk) {
+                try {
+                    save(List.of(row));
+                    run.imported++;
+                } catch (DataAccessException rowFailure) {
+                    run.reject(row.line(), "Insert failed: " + rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts rows in one transaction. The entities are built here, so a retry after a rollback
+     * starts from fresh, unsaved loads.
+     */
+    private void save(List<PendingRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            List<Load> saved = loadRepository.saveAll(rows.stream().map(row -> toLoad(row.request())).toList());
+            saved.forEach(openLoadIndex::loadChanged);
+        });
+    }
+
+    /**
+     * A validated row waiting to be inserted.
+     */
+    private record PendingRow(long line, LoadRequest request) {
+    }
+
+    /**
+     * Progress of one import.
+     */
+    private final class Import {
+        private List<PendingRow> pending = new ArrayList<>(batchSize);
+        private final List<LoadImportError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long failed;
+
+        private void reject(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new LoadImportError(line, message));
+            }
+        }
+    }
+}
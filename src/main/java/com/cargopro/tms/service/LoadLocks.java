@@ -0,0 +1,96 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.exception.LoadBusyException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Striped, in-process locks keyed by loadId.
+ *
+ * Booking operations and bid submissions on the same load are serialized here before their
+ * transaction starts, so they queue up instead of failing late on the Load version check. Operations on
+ * different loads almost always map to different stripes and run in parallel.
+ * Optimistic locking on Load remains the safety net across application instances.
+ */
+@Component
+public class LoadLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public LoadLocks(@Value("${tms.booking.lock-stripes:1024}") int stripeCount,
+                     @Value("${tms.booking.lock-timeout-ms:5000}") long timeoutMillis) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            // Fair locks hand the load to waiting bookings in arrival order.
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs an action while holding the lock of a load.
+     *
+     * @param loadId The ID of the load.
+     * @param action The action to run, typically a whole transaction.
+     * @return The result of the action.
+     * @throws LoadBusyException if the lock could not be acquired within the timeout.
+     */
+    public <T> T withLock(UUID loadId, Supplier<T> action) {
+        ReentrantLock lock = stripeOf(loadId);
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new LoadBusyException("Load " + loadId + " is busy with other bookings. Please try again.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadBusyException("Interrupted while waiting for load " + loadId + ".");
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs an action on those of several loads whose locks are free right now, holding those locks.
+     * Busy loads are left out instead of waited for, so a caller holding some stripes never blocks
+     * on another and two callers cannot deadlock.
+     *
+     * @param loadIds The IDs of the loads.
+     * @param action  The action to run on the loads that were locked, typically a whole transaction.
+     * @return The result of the action.
+     */
+    public <T> T withFreeLocks(Collection<UUID> loadIds, Function<List<UUID>, T> action) {
+        List<ReentrantLock> held = new ArrayList<>();
+        List<UUID> locked = new ArrayList<>(loadIds.size());
+        try {
+            for (UUID loadId : loadIds) {
+                ReentrantLock lock = stripeOf(loadId);
+                // Reentrant, so a stripe shared by several of the loads is simply taken again.
+                if (lock.tryLock()) {
+                    held.add(lock);
+                    locked.add(loadId);
+                }
+            }
+            return action.apply(locked);
+        } finally {
+            held.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private ReentrantLock stripeOf(UUID loadId) {
+        return stripes[Math.floorMod(loadId.hashCode(), stripes.length)];
+    }
+}
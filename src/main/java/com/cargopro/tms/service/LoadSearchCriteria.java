@@ -0,0 +1,56 @@
+package com.cargopro.tms.service;
+
+import java.sql.Timestamp;
+import java.util.Locale;
+
+/**
+ * Filters of a lane search. Every filter is optional; a null filter matches every open load.
+ * Cities and truck types are compared case-insensitively and ignoring surrounding whitespace.
+ *
+ * @param loadingCity   The city where the load is picked up.
+ * @param unloadingCity The city where the load is delivered.
+ * @param truckType     The required truck type.
+ * @param minWeightKg   Inclusive lower bound of the weight, in kilograms.
+ * @param maxWeightKg   Inclusive upper bound of the weight, in kilograms.
+ * @param loadingFrom   Inclusive start of the loading date window.
+ * @param loadingTo     Inclusive end of the loading date window.
+ */
+public record LoadSearchCriteria(
+        String loadingCity,
+        String unloadingCity,
+        String truckType,
+        Double minWeightKg,
+        Double maxWeightKg,
+        Timestamp loadingFrom,
+        Timestamp loadingTo
+) {
+
+    public LoadSearchCriteria {
+        loadingCity = normalize(loadingCity);
+        unloadingCity = normalize(unloadingCity);
+        truckType = normalize(truckType);
+    }
+
+    /**
+     * Returns whether an indexed load satisfies every supplied filter.
+     */
+    public boolean matches(OpenLoadIndex.IndexedLoad load) {
+        return (loadingCity == null || loadingCity.equals(load.loadingCityKey()))
+                && (unloadingCity == null || unloadingCity.equals(load.unloadingCityKey()))
+                && (truckType == null || truckType.equals(load.truckTypeKey()))
+                && (minWeightKg == null || load.weightInKg() >= minWeightKg)
+                && (maxWeightKg == null || load.weightInKg() <= maxWeightKg)
+                && (loadingFrom == null || (load.loadingDate() != null && !load.loadingDate().before(loadingFrom)))
+                && (loadingTo == null || (load.loadingDate() != null && !load.loadingDate().after(loadingTo)));
+    }
+
+    /**
+     * The search key of a city or truck type: trimmed and lower-cased, or null if blank.
+     */
+    public static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,6 +1,8 @@
 package com.cargopro.tms.service;
 
 import com.cargopro.tms.dto.BidResponse;
+import com.cargopro.tms.dto.CursorPage;
+import com.cargopro.tms.dto.LoadCancellationResponse;
 import com.cargopro.tms.dto.LoadRequest;
 import com.cargopro.tms.dto.LoadResponse;
 import com.cargopro.tms.dto.LoadWithBidsResponse;
@@ -8,7 +10,11 @@ import com.cargopro.tms.entity.LoadStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 /**
  * Service interface for managing Loads.
@@ -56,35 +62,115 @@ public interface LoadService {
     void deleteLoad(UUID loadId);
 
     /**
-     * Cancels a load if it is not already booked.
+     * Cancels a load if it is not already booked, and rejects its PENDING bids.
      *
      * @param loadId The ID of the load to cancel.
+     * @return The cancelled load's status and the number of bids rejected.
      */
-    void cancelLoad(UUID loadId);
+    LoadCancellationResponse cancelLoad(UUID loadId);
 
     /**
      * Retrieves loads based on shipperId and status with pagination.
+     * Both filters are optional; a null filter matches every load.
      *
-     * @param shipperId The ID of the shipper.
-     * @param status    The status of the load.
+     * @param shipperId Optional ID of the shipper.
+     * @param status    Optional status of the load.
      * @param pageable  Pagination information.
      * @return A page of load responses.
      */
     Page<LoadResponse> getLoadsByFilter(String shipperId, LoadStatus status, Pageable pageable);
 
     /**
-     * Retrieves a load and its associated active bids.
+     * Retrieves loads newest first, one keyset page at a time.
+     * Unlike offset paging, every page costs the same and no total count is computed.
      *
-     * @param loadId The ID of the load.
+     * @param shipperId Optional shipper ID filter.
+     * @param status    Optional status filter.
+     * @param cursor    The nextCursor of the previous page, or null for the first page.
+     * @param size      The maximum number of loads to return.
+     * @return The page of load responses and the cursor of the next page.
+     */
+    CursorPage<LoadResponse> getLoadsByCursor(String shipperId, LoadStatus status, String cursor, int size);
+
+    /**
+     * Searches the open loads (POSTED or OPEN_FOR_BIDS) by lane, truck type, weight and loading date.
+     * Served from the in-memory lane search index; falls back to the database while the index is
+     * still being filled after startup.
+     *
+     * @param criteria The search filters.
+     * @param limit    The maximum number of loads to return.
+     * @return The matching loads, earliest loading date first.
+     */
+    List<LoadResponse> searchOpenLoads(LoadSearchCriteria criteria, int limit);
+
+    /**
+     * Retrieves the open loads (POSTED or OPEN_FOR_BIDS) requiring one of the given truck types.
+     * Served from the lane search index; falls back to the database while it is being filled.
+     *
+     * @param truckTypes Normalized truck types (trimmed and lower-cased).
+     * @param limit      The maximum number of loads to return.
+     * @return The loads, earliest loading date first, then the most remaining trucks first.
+     */
+    List<LoadResponse> getOpenLoadsForTruckTypes(Set<String> truckTypes, int limit);
+
+    /**
+     * Retrieves a load and its associated active (PENDING) bids in submission order.
+     *
+     * @param loadId   The ID of the load.
+     * @param bidLimit Optional maximum number of bids to return; all active bids if null.
      * @return The load with bids response.
      */
-    LoadWithBidsResponse getLoadWithBids(UUID loadId);
+    LoadWithBidsResponse getLoadWithBids(UUID loadId, Integer bidLimit);
 
     /**
-     * Calculates and retrieves the best bids for a load based on a scoring formula.
+     * Conditional variant of getLoadWithBids for GET requests carrying If-None-Match. The entity tag
+     * (see getLoadETag) is read in the same query as the load and its bids.
+     *
+     * @param loadId      The ID of the load.
+     * @param bidLimit    Optional maximum number of bids to return; all active bids if null.
+     * @param notModified Checks the tag against the request and, on a match, completes the response as 304.
+     * @return The load with bids response, or empty if notModified matched the tag.
+     */
+    Optional<LoadWithBidsResponse> getLoadWithBidsIfModified(UUID loadId, Integer bidLimit, Predicate<String> notModified);
+
+    /**
+     * Returns the entity tag of a load and its bids, for conditional GET requests. The tag is built
+     * from the load's version and its bid set version, which is bumped by every change to one of
+     * the load's bids, so any change to the load or its bids produces a new tag. Read by primary key,
+     * so the cost does not depend on the number of bids.
+     *
+     * @param loadId The ID of the load.
+     * @return The tag, without quotes, or empty if the load does not exist.
+     */
+    Optional<String> getLoadETag(UUID loadId);
+
+    /**
+     * Calculates and retrieves the best pending bids for a load based on a scoring formula.
      *
      * @param loadId The ID of the load.
+     * @param limit  Optional maximum number of bids to return; all pending bids if null.
      * @return A list of bid responses sorted by score.
      */
-    List<BidResponse> getBestBids(UUID loadId);
+    List<BidResponse> getBestBids(UUID loadId, Integer limit);
+
+    /**
+     * Conditional variant of getBestBids for GET requests carrying If-None-Match. The entity tag
+     * describes the source the bids are served from: the leaderboard board state when it can
+     * answer, otherwise the load's database versions (see getLoadETag), read before the bids.
+     *
+     * @param loadId      The ID of the load.
+     * @param limit       Optional maximum number of bids to return; all pending bids if null.
+     * @param notModified Checks the tag against the request and, on a match, completes the response as 304.
+     * @return The bids sorted by score, or empty if notModified matched the tag.
+     */
+    Optional<List<BidResponse>> getBestBidsIfModified(UUID loadId, Integer limit, Predicate<String> notModified);
+
+    /**
+     * Retrieves the best pending bids for several loads at once.
+     *
+     * @param loadIds The IDs of the loads. Unknown IDs are omitted from the result.
+     * @param limit   Optional maximum number of bids per load; all pending bids if null.
+     * @return The bid responses sorted by score, keyed by load ID in request order.
+     */
+    Map<UUID, List<BidResponse>> getBestBidsForLoads(List<UUID> loadIds, Integer limit);
 }
@@ -1,29 +1,43 @@
 package com.cargopro.tms.service;
 
 import com.cargopro.tms.dto.BidResponse;
+import com.cargopro.tms.dto.CursorPage;
+import com.cargopro.tms.dto.LoadCancellationResponse;
 import com.cargopro.tms.dto.LoadRequest;
 import com.cargopro.tms.dto.LoadResponse;
 import com.cargopro.tms.dto.LoadWithBidsResponse;
 import com.cargopro.tms.entity.Bid;
+import com.cargopro.tms.entity.BidStatus;
 import com.cargopro.tms.entity.Load;
 import com.cargopro.tms.entity.LoadStatus;
-import com.cargopro.tms.entity.Transporter;
 import com.cargopro.tms.exception.InvalidStatusTransitionException;
 import com.cargopro.tms.exception.ResourceNotFoundException;
 import com.cargopro.tms.repository.BidRepository;
 import com.cargopro.tms.repository.LoadRepository;
-import com.cargopro.tms.repository.TransporterRepository;
+import com.cargopro.tms.repository.LoadSpecifications;
+import com.cargopro.tms.repository.LoadWithBidRow;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
 import java.time.Instant;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -35,12 +49,17 @@ public class LoadServiceImpl implements LoadService {
 
     private final LoadRepository loadRepository;
     private final BidRepository bidRepository;
-    private final TransporterRepository transporterRepository;
+    private final BidLeaderboard bidLeaderboard;
+    private final OpenLoadIndex openLoadIndex;
+    private final BidService bidService;
 
-    public LoadServiceImpl(LoadRepository loadRepository, BidRepository bidRepository, TransporterRepository transporterRepository) {
+    public LoadServiceImpl(LoadRepository loadRepository, BidRepository bidRepository, BidLeaderboard bidLeaderboard,
+                           OpenLoadIndex openLoadIndex, BidService bidService) {
         this.loadRepository = loadRepository;
         this.bidRepository = bidRepository;
-        this.transporterRepository = transporterRepository;
+        this.bidLeaderboard = bidLeaderboard;
+        this.openLoadIndex = openLoadIndex;
+        this.bidService = bidService;
     }
 
     @Override
@@ -54,6 +73,7 @@ public class LoadServiceImpl implements LoadService {
         load.setDatePosted(Timestamp.from(Instant.now()));
 
         Load savedLoad = loadRepository.save(load);
+        openLoadIndex.loadChanged(savedLoad);
         return mapEntityToResponse(savedLoad);
     }
 
@@ -80,6 +100,7 @@ public class LoadServiceImpl implements LoadService {
         mapRequestToEntity(loadRequest, load);
         
         Load updatedLoad = loadRepository.save(load);
+        openLoadIndex.loadChanged(updatedLoad);
         return mapEntityToResponse(updatedLoad);
     }
 
@@ -90,72 +111,317 @@ public class LoadServiceImpl implements LoadService {
             throw new ResourceNotFoundException("Load not found with id: " + loadId);
         }
         loadRepository.deleteById(loadId);
+        openLoadIndex.loadRemoved(loadId);
     }
 
     @Override
     @Transactional
-    public void cancelLoad(UUID loadId) {
+    public LoadCancellationResponse cancelLoad(UUID loadId) {
         Load load = findLoadByIdOrThrow(loadId);
 
         // Rule 2: Validate that the load is NOT currently BOOKED before canceling.
         if (load.getStatus() == LoadStatus.BOOKED) {
             throw new InvalidStatusTransitionException("Cannot cancel a load that is already BOOKED.");
         }
+        if (load.getStatus() == LoadStatus.EXPIRED) {
+            throw new InvalidStatusTransitionException("Cannot cancel a load whose bidding has expired.");
+        }
 
         load.setStatus(LoadStatus.CANCELLED);
         loadRepository.save(load);
+        openLoadIndex.loadChanged(load);
+
+        // Nobody can win the remaining bids any more.
+        int rejectedBids = bidService.rejectPendingBids(load);
+
+        // A cancelled load no longer needs its in-memory bid ranking.
+        bidLeaderboard.evictLoad(loadId);
+        return new LoadCancellationResponse(loadId, load.getStatus(), rejectedBids);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<LoadResponse> getLoadsByFilter(String shipperId, LoadStatus status, Pageable pageable) {
-        return loadRepository.findByShipperIdAndStatus(shipperId, status, pageable)
+        // Only the supplied filters become predicates; a missing filter means "any", not IS NULL.
+        Specification<Load> spec = Specification.where(LoadSpecifications.hasShipperId(shipperId))
+                .and(LoadSpecifications.hasStatus(status));
+        return loadRepository.findAll(spec, pageable)
                 .map(this::mapEntityToResponse);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public LoadWithBidsResponse getLoadWithBids(UUID loadId) {
-        Load load = findLoadByIdOrThrow(loadId);
-        List<Bid> bids = bidRepository.findByLoadId(loadId);
-        
-        List<BidResponse> bidResponses = bids.stream()
-                .map(bid -> mapBidToResponse(bid, null))
-                .collect(Collectors.toList());
+    public CursorPage<LoadResponse> getLoadsByCursor(String shipperId, LoadStatus status, String cursor, int size) {
+        Specification<Load> spec = Specification.where(LoadSpecifications.hasShipperId(shipperId))
+                .and(LoadSpecifications.hasStatus(status));
+        if (cursor != null) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            spec = spec.and(LoadSpecifications.postedBefore(Timestamp.from(position.timestamp()), position.id()));
+        }
+
+        // Fetch one extra row to learn whether another page exists, instead of counting.
+        List<Load> loads = loadRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "datePosted", "loadId"))
+                .limit(size + 1)
+                .all());
+
+        String nextCursor = null;
+        if (loads.size() > size) {
+            loads = loads.subList(0, size);
+            Load last = loads.get(size - 1);
+            nextCursor = new KeysetCursor(last.getDatePosted().toInstant(), last.getLoadId()).encode();
+        }
+        return new CursorPage<>(loads.stream().map(this::mapEntityToResponse).toList(), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LoadResponse> searchOpenLoads(LoadSearchCriteria criteria, int limit) {
+        return openLoadIndex.search(criteria, limit)
+                .map(loads -> loads.stream().map(OpenLoadIndex.IndexedLoad::toResponse).toList())
+                .orElseGet(() -> searchOpenLoadsInDatabase(criteria, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LoadResponse> getOpenLoadsForTruckTypes(Set<String> truckTypes, int limit) {
+        List<OpenLoadIndex.IndexedLoad> loads = openLoadIndex.matching(truckTypes, limit)
+                .orElseGet(() -> findOpenLoadsForTruckTypesInDatabase(truckTypes, limit));
+        return loads.stream().map(OpenLoadIndex.IndexedLoad::toResponse).toList();
+    }
 
-        return new LoadWithBidsResponse(mapEntityToResponse(load), bidResponses);
+    /**
+     * Reads the matching loads from the database while the in-memory index is still being filled.
+     * The query orders by loading date only; ties at the limit boundary may differ from the index.
+     */
+    private List<OpenLoadIndex.IndexedLoad> findOpenLoadsForTruckTypesInDatabase(Set<String> truckTypes, int limit) {
+        Specification<Load> spec = LoadSpecifications.hasStatusIn(List.of(LoadStatus.POSTED, LoadStatus.OPEN_FOR_BIDS))
+                .and(LoadSpecifications.hasTruckTypeKeyIn(truckTypes));
+        return loadRepository.findBy(spec, query -> query
+                        .sortBy(Sort.by("loadingDate", "loadId"))
+                        .limit(limit)
+                        .all())
+                .stream()
+                .map(OpenLoadIndex.IndexedLoad::of)
+                .sorted(OpenLoadIndex.MATCHING_ORDER)
+                .toList();
+    }
+
+    /**
+     * Answers a lane search from the database while the in-memory index is still being filled.
+     */
+    private List<LoadResponse> searchOpenLoadsInDatabase(LoadSearchCriteria criteria, int limit) {
+        Specification<Load> spec = LoadSpecifications.hasStatusIn(List.of(LoadStatus.POSTED, LoadStatus.OPEN_FOR_BIDS))
+                .and(LoadSpecifications.hasLoadingCityKey(criteria.loadingCity()))
+                .and(LoadSpecifications.hasUnloadingCityKey(criteria.unloadingCity()))
+                .and(LoadSpecifications.hasTruckTypeKey(criteria.truckType()))
+                .and(LoadSpecifications.weighsAtLeastKg(criteria.minWeightKg()))
+                .and(LoadSpecifications.weighsAtMostKg(criteria.maxWeightKg()))
+                .and(LoadSpecifications.loadingFrom(criteria.loadingFrom()))
+                .and(LoadSpecifications.loadingTo(criteria.loadingTo()));
+        return loadRepository.findBy(spec, query -> query
+                        .sortBy(Sort.by("loadingDate", "loadId"))
+                        .limit(limit)
+                        .all())
+                .stream()
+                .map(this::mapEntityToResponse)
+                .toList();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BidResponse> getBestBids(UUID loadId) {
-        // Fetch all active bids for the load
-        List<Bid> bids = bidRepository.findByLoadId(loadId);
-
-        return bids.stream()
-                .map(bid -> {
-                    // Fetch Transporter to get rating
-                    Transporter transporter = transporterRepository.findById(bid.getTransporterId())
-                            .orElseThrow(() -> new ResourceNotFoundException("Transporter not found for bid: " + bid.getBidId()));
-                    
-                    // Calculate Score
-                    // Formula: Score = (1/proposedRate) * 0.7 + (rating/5) * 0.3
-                    double rateScore = (1.0 / bid.getProposedRate()) * 0.7;
-                    double ratingScore = (transporter.getRating() / 5.0) * 0.3;
-                    double totalScore = rateScore + ratingScore;
-
-                    return mapBidToResponse(bid, totalScore);
-                })
-                .sorted(Comparator.comparing(BidResponse::score).reversed()) // Sort by highest score
+    public LoadWithBidsResponse getLoadWithBids(UUID loadId, Integer bidLimit) {
+        // One round trip: the load joined with at most bidLimit of its PENDING bids.
+        return toLoadWithBids(findWithBidsOrThrow(loadId, bidLimit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LoadWithBidsResponse> getLoadWithBidsIfModified(UUID loadId, Integer bidLimit,
+                                                                    Predicate<String> notModified) {
+        // The versions come with the rows, so the tag describes exactly the body and costs no extra round trip.
+        List<LoadWithBidRow> rows = findWithBidsOrThrow(loadId, bidLimit);
+        LoadWithBidRow first = rows.get(0);
+        if (notModified.test(eTag(first.getLoadVersion(), first.getBidSetVersion()))) {
+            return Optional.empty();
+        }
+        return Optional.of(toLoadWithBids(rows));
+    }
+
+    private List<LoadWithBidRow> findWithBidsOrThrow(UUID loadId, Integer bidLimit) {
+        List<LoadWithBidRow> rows = loadRepository.findWithBids(loadId, BidStatus.PENDING.name(), bidLimit);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Load not found with id: " + loadId);
+        }
+        return rows;
+    }
+
+    private static LoadWithBidsResponse toLoadWithBids(List<LoadWithBidRow> rows) {
+        LoadWithBidRow first = rows.get(0);
+        LoadResponse load = new LoadResponse(
+                first.getLoadId(),
+                first.getShipperId(),
+                first.getLoadingCity(),
+                first.getUnloadingCity(),
+                first.getLoadingDate(),
+                first.getProductType(),
+                first.getWeight(),
+                first.getWeightUnit(),
+                first.getTruckType(),
+                first.getNumOfTrucks(),
+                first.getLoadStatus(),
+                first.getDatePosted()
+        );
+        List<BidResponse> bids = rows.stream()
+                .filter(row -> row.getBidId() != null)
+                .map(row -> new BidResponse(
+                        row.getBidId(),
+                        row.getLoadId(),
+                        row.getTransporterId(),
+                        row.getProposedRate(),
+                        row.getTrucksOffered(),
+                        row.getBidStatus(),
+                        row.getSubmittedAt(),
+                        null))
+                .toList();
+
+        return new LoadWithBidsResponse(load, bids);
+    }
+
+    @Override
+    public Optional<String> getLoadETag(UUID loadId) {
+        return loadRepository.findVersions(loadId)
+                .map(versions -> eTag(versions.getLoadVersion(), versions.getBidSetVersion()));
+    }
+
+    private static String eTag(long loadVersion, long bidSetVersion) {
+        return loadVersion + "-" + bidSetVersion;
+    }
+
+    @Override
+    public List<BidResponse> getBestBids(UUID loadId, Integer limit) {
+        // Deliberately not @Transactional: a leaderboard hit must not acquire a database connection.
+        int maxResults = limit != null ? limit : Integer.MAX_VALUE;
+
+        Optional<List<BidResponse>> ranked = bidLeaderboard.getTop(loadId, maxResults);
+        if (ranked.isPresent()) {
+            return ranked.get();
+        }
+        return rankFromDatabase(loadId, maxResults);
+    }
+
+    @Override
+    public Optional<List<BidResponse>> getBestBidsIfModified(UUID loadId, Integer limit, Predicate<String> notModified) {
+        int maxResults = limit != null ? limit : Integer.MAX_VALUE;
+
+        // Tag and bids come from the same source, so a client can never store a tag newer than its bids.
+        Optional<BidLeaderboard.Ranking> ranking = bidLeaderboard.getRanking(loadId, maxResults);
+        if (ranking.isPresent()) {
+            return notModified.test(ranking.get().eTag()) ? Optional.empty() : Optional.of(ranking.get().bids());
+        }
+        Optional<String> eTag = getLoadETag(loadId);
+        if (eTag.isPresent() && notModified.test(eTag.get())) {
+            return Optional.empty();
+        }
+        return Optional.of(rankFromDatabase(loadId, maxResults));
+    }
+
+    /**
+     * Ranks the pending bids of a load from the database, rebuilding its leaderboard on the way.
+     * The returned bids are always read from the database, never from the leaderboard.
+     */
+    private List<BidResponse> rankFromDatabase(UUID loadId, int maxResults) {
+        // Cache miss: rebuild the leaderboard from the database if the load is still open for bids.
+        Load load = findLoadByIdOrThrow(loadId);
+        if (isOpenForBids(load)) {
+            int capacity = bidLeaderboard.getMaxEntriesPerLoad();
+            long token = bidLeaderboard.beginRebuild(loadId);
+            List<BidResponse> rebuilt = findTopScoredPendingBids(loadId, capacity + 1);
+            bidLeaderboard.install(loadId, token, rebuilt);
+
+            if (maxResults <= capacity || rebuilt.size() <= capacity) {
+                return rebuilt.stream().limit(maxResults).collect(Collectors.toList());
+            }
+        } else {
+            // A board built before the load closed on another instance must not be served again.
+            bidLeaderboard.evictLoad(loadId);
+        }
+
+        return findTopScoredPendingBids(loadId, maxResults);
+    }
+
+    @Override
+    public Map<UUID, List<BidResponse>> getBestBidsForLoads(List<UUID> loadIds, Integer limit) {
+        int maxResults = limit != null ? limit : Integer.MAX_VALUE;
+        Map<UUID, List<BidResponse>> results = new ConcurrentHashMap<>();
+
+        // 1. Serve every load we can from the leaderboard
+        List<UUID> misses = new ArrayList<>();
+        for (UUID loadId : new LinkedHashSet<>(loadIds)) {
+            Optional<List<BidResponse>> ranked = bidLeaderboard.getTop(loadId, maxResults);
+            if (ranked.isPresent()) {
+                results.put(loadId, ranked.get());
+            } else {
+                misses.add(loadId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            // 2. Fetch the remaining loads and all of their pending bids with two set-based queries
+            List<Load> loads = loadRepository.findAllById(misses);
+            Map<UUID, Long> rebuildTokens = new HashMap<>();
+            for (Load load : loads) {
+                if (isOpenForBids(load)) {
+                    rebuildTokens.put(load.getLoadId(), bidLeaderboard.beginRebuild(load.getLoadId()));
+                } else {
+                    bidLeaderboard.evictLoad(load.getLoadId());
+                }
+            }
+            Map<UUID, List<Bid>> bidsByLoad = bidRepository.findByLoadIdInAndStatus(misses, BidStatus.PENDING).stream()
+                    .collect(Collectors.groupingBy(Bid::getLoadId));
+
+            // 3. Rank each load in parallel by the persisted score, rebuilding the leaderboard of open loads on the way
+            loads.parallelStream().forEach(load -> {
+                List<BidResponse> ranked = bidsByLoad.getOrDefault(load.getLoadId(), List.of()).stream()
+                        .map(bid -> mapBidToResponse(bid, bid.getScore()))
+                        .sorted(BidLeaderboard.RANKING)
+                        .collect(Collectors.toList());
+                Long token = rebuildTokens.get(load.getLoadId());
+                if (token != null) {
+                    bidLeaderboard.install(load.getLoadId(), token, ranked);
+                }
+                results.put(load.getLoadId(), ranked.subList(0, Math.min(maxResults, ranked.size())));
+            });
+        }
+
+        // Preserve the request order in the response
+        Map<UUID, List<BidResponse>> ordered = new LinkedHashMap<>();
+        for (UUID loadId : loadIds) {
+            List<BidResponse> ranked = results.get(loadId);
+            if (ranked != null) {
+                ordered.put(loadId, ranked);
+            }
+        }
+        return ordered;
+    }
+
+    private List<BidResponse> findTopScoredPendingBids(UUID loadId, int limit) {
+        // The persisted score is kept up to date at bid submission and on transporter rating changes.
+        return bidRepository.findByLoadIdAndStatusOrderByScoreDesc(loadId, BidStatus.PENDING, Limit.of(limit)).stream()
+                .map(bid -> mapBidToResponse(bid, bid.getScore()))
                 .collect(Collectors.toList());
     }
 
+    private boolean isOpenForBids(Load load) {
+        return load.getStatus() == LoadStatus.POSTED || load.getStatus() == LoadStatus.OPEN_FOR_BIDS;
+    }
+
     private Load findLoadByIdOrThrow(UUID loadId) {
         return loadRepository.findById(loadId)
                 .orElseThrow(() -> new ResourceNotFoundException("Load not found with id: " + loadId));
     }
 
-    private void mapRequestToEntity(LoadRequest request, Load load) {
+    static void mapRequestToEntity(LoadRequest request, Load load) {
         load.setShipperId(request.shipperId());
         load.setLoadingCity(request.loadingCity());
         load.setUnloadingCity(request.unloadingCity());
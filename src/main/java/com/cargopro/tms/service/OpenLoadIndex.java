@@ -0,0 +1,494 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.dto.LoadResponse;
+import com.cargopro.tms.entity.Load;
+import com.cargopro.tms.entity.LoadStatus;
+import com.cargopro.tms.entity.WeightUnit;
+import com.cargopro.tms.repository.LoadRepository;
+import com.cargopro.tms.repository.LoadSpecifications;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory lane search index of the open loads (POSTED or OPEN_FOR_BIDS).
+ *
+ * Loads are indexed by normalized loading city, unloading city, lane (both cities) and truck type,
+ * each a posting set kept in loading date order, and by loading date in a skip list. A search walks
+ * the smallest posting set that applies, or the date order when only a date window or weight range is given,
+ * and stops after {@code limit} matches, so lookups never touch the database. Each truck type also
+ * keeps its open loads in matching order, so a transporter's feed is read from the heads of the
+ * sets of the truck types it owns.
+ *
+ * The index is filled from the database once the application is ready and then kept up to date by
+ * the load, bid and booking services of this instance; all updates are applied after the
+ * surrounding transaction commits. Changes made by other instances are picked up by a periodic
+ * refresh ({@code tms.search.refresh-interval-ms}) that re-reads the open loads and drops the
+ * indexed loads that are no longer open. These reads bypass the second-level cache.
+ */
+@Component
+public class OpenLoadIndex {
+
+    /**
+     * Result order of a search: earliest loading date first, ties broken by load ID.
+     */
+    static final Comparator<IndexedLoad> LOADING_DATE_ORDER =
+            Comparator.comparing(IndexedLoad::loadingDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(IndexedLoad::loadId);
+
+    /**
+     * Order of a transporter's matching-loads feed: earliest loading date first, then the loads
+     * with the most remaining trucks, ties broken by load ID.
+     */
+    static final Comparator<IndexedLoad> MATCHING_ORDER =
+            Comparator.comparing(IndexedLoad::loadingDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Comparator.comparingInt(IndexedLoad::remainingTrucks).reversed())
+                    .thenComparing(IndexedLoad::loadId);
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    private static final List<LoadStatus> OPEN_STATUSES = List.of(LoadStatus.POSTED, LoadStatus.OPEN_FOR_BIDS);
+
+    private static final Logger log = LoggerFactory.getLogger(OpenLoadIndex.class);
+
+    private final LoadRepository loadRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int warmUpChunkSize;
+
+    private final Map<UUID, IndexedLoad> loads = new ConcurrentHashMap<>();
+    private final Map<String, Posting> byLoadingCity = new ConcurrentHashMap<>();
+    private final Map<String, Posting> byUnloadingCity = new ConcurrentHashMap<>();
+    private final Map<String, Posting> byLane = new ConcurrentHashMap<>();
+    private final Map<String, Posting> byTruckType = new ConcurrentHashMap<>();
+    private final NavigableSet<IndexedLoad> byLoadingDate = new ConcurrentSkipListSet<>(LOADING_DATE_ORDER);
+    private final Map<String, NavigableSet<IndexedLoad>> rankedByTruckType = new ConcurrentHashMap<>();
+
+    /**
+     * Versions of recently closed or deleted loads, so that an update committed earlier but
+     * applied later cannot bring a closed load back into the index.
+     */
+    private final Cache<UUID, Long> removed;
+
+    private volatile boolean ready;
+
+    public OpenLoadIndex(LoadRepository loadRepository, EntityManager entityManager,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                         @Value("${tms.search.warm-up-chunk-size:1000}") int warmUpChunkSize,
+                         @Value("${tms.search.removed-retention:PT10M}") Duration removedRetention) {
+        this.loadRepository = loadRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.warmUpChunkSize = warmUpChunkSize;
+        this.removed = Caffeine.newBuilder().expireAfterWrite(removedRetention).build();
+        Gauge.builder("tms.search.open-loads", loads, Map::size)
+                .description("Open loads held by the lane search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the open loads matching the criteria, earliest loading date first.
+     *
+     * @param criteria The search filters.
+     * @param limit    The maximum number of loads to return.
+     * @return The matching loads, or empty while the index is still being filled.
+     */
+    public Optional<List<IndexedLoad>> search(LoadSearchCriteria criteria, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Posting candidates = smallest(
+                posting(byLoadingCity, criteria.loadingCity()),
+                posting(byUnloadingCity, criteria.unloadingCity()),
+                posting(byLane, laneKey(criteria.loadingCity(), criteria.unloadingCity())),
+                posting(byTruckType, criteria.truckType()));
+
+        return Optional.of(walkByLoadingDate(candidates != null ? candidates.loads() : byLoadingDate, criteria, limit));
+    }
+
+    /**
+     * Returns the open loads requiring one of the given truck types, in matching order.
+     * Reads at most {@code limit} entries per truck type instead of scanning the open loads.
+     *
+     * @param truckTypeKeys Normalized truck types (see {@link LoadSearchCriteria#normalize}).
+     * @param limit         The maximum number of loads to return.
+     * @return The matching loads, or empty while the index is still being filled.
+     */
+    public Optional<List<IndexedLoad>> matching(Collection<String> truckTypeKeys, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<IndexedLoad> heads = new ArrayList<>();
+        for (String truckTypeKey : truckTypeKeys) {
+            int taken = 0;
+            for (IndexedLoad load : rankedByTruckType.getOrDefault(truckTypeKey, Collections.emptyNavigableSet())) {
+                if (taken == limit) {
+                    break;
+                }
+                // Skip entries superseded by a concurrent update
+                if (loads.get(load.loadId()) == load) {
+                    heads.add(load);
+                    taken++;
+                }
+            }
+        }
+        heads.sort(MATCHING_ORDER);
+        return Optional.of(heads.size() > limit ? heads.subList(0, limit) : heads);
+    }
+
+    /**
+     * Indexes the load's committed state once the transaction commits: open loads are added or
+     * updated, loads that moved to BOOKED or CANCELLED are dropped.
+     */
+    public void loadChanged(Load load) {
+        AfterCommit.run(() -> apply(IndexedLoad.of(load)));
+    }
+
+    /**
+     * Drops a deleted or expired load once the transaction commits.
+     */
+    public void loadRemoved(UUID loadId) {
+        AfterCommit.run(() -> drop(loadId));
+    }
+
+    /**
+     * Fills the index with the open loads in the database, one loadId-ordered chunk at a time.
+     * Changes committed meanwhile are applied as usual; the version check keeps them from being
+     * overwritten by the older rows read here.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int total = readOpenLoads(load -> apply(IndexedLoad.of(load)));
+        ready = true;
+        log.info("Lane search index ready with {} open loads", total);
+    }
+
+    /**
+     * Brings in changes committed by other instances: re-reads the open loads, then re-reads the
+     * indexed loads that were not among them and drops those that are closed or deleted. Loads
+     * opened on this instance meanwhile are found open by the second read and kept.
+     */
+    @Scheduled(initialDelayString = "${tms.search.refresh-interval-ms:60000}",
+               fixedDelayString = "${tms.search.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        Set<UUID> open = new HashSet<>();
+        readOpenLoads(load -> {
+            open.add(load.getLoadId());
+            apply(IndexedLoad.of(load));
+        });
+
+        List<UUID> missing = loads.keySet().stream().filter(loadId -> !open.contains(loadId)).toList();
+        int dropped = 0;
+        for (int from = 0; from < missing.size(); from += warmUpChunkSize) {
+            List<UUID> chunk = missing.subList(from, Math.min(from + warmUpChunkSize, missing.size()));
+            Set<UUID> found = new HashSet<>();
+            readUncached(() -> loadRepository.findAllById(chunk)).forEach(load -> {
+                found.add(load.getLoadId());
+                apply(IndexedLoad.of(load));
+            });
+            for (UUID loadId : chunk) {
+                if (!found.contains(loadId)) {
+                    drop(loadId);
+                }
+                if (!loads.containsKey(loadId)) {
+                    dropped++;
+                }
+            }
+        }
+        if (dropped > 0) {
+            log.info("Lane search index refresh dropped {} loads closed elsewhere", dropped);
+        }
+    }
+
+    /**
+     * Passes every open load in the database to the consumer, one loadId-ordered chunk at a time.
+     *
+     * @return The number of loads read.
+     */
+    private int readOpenLoads(Consumer<Load> consumer) {
+        UUID after = MIN_UUID;
+        int total = 0;
+        List<Load> chunk;
+        do {
+            UUID lastId = after;
+            chunk = readUncached(() -> loadRepository.findBy(
+                    LoadSpecifications.hasStatusIn(OPEN_STATUSES).and(LoadSpecifications.idAfter(lastId)),
+                    query -> query.sortBy(Sort.by("loadId")).limit(warmUpChunkSize).all()));
+            chunk.forEach(consumer);
+            total += chunk.size();
+            if (!chunk.isEmpty()) {
+                after = chunk.get(chunk.size() - 1).getLoadId();
+            }
+        } while (chunk.size() == warmUpChunkSize);
+        return total;
+    }
+
+    /**
+     * Runs a read in its own read-only transaction that neither reads nor fills the second-level
+     * cache, so the index sees the database and a full pass does not evict the hot loads.
+     */
+    private List<Load> readUncached(Supplier<List<Load>> read) {
+        return readOnlyTransaction.execute(status -> {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            return read.get();
+        });
+    }
+
+    private void drop(UUID loadId) {
+        loads.compute(loadId, (id, current) -> {
+            removed.put(id, Long.MAX_VALUE);
+            unindex(current);
+            return null;
+        });
+    }
+
+    private void apply(IndexedLoad load) {
+        loads.compute(load.loadId(), (id, current) -> {
+            if (isStale(load, current)) {
+                return current;
+            }
+            unindex(current);
+            if (!OPEN_STATUSES.contains(load.status())) {
+                removed.put(id, load.versionOrZero());
+                return null;
+            }
+            index(load);
+            return load;
+        });
+    }
+
+    private boolean isStale(IndexedLoad load, IndexedLoad current) {
+        Long removedVersion = removed.getIfPresent(load.loadId());
+        if (removedVersion != null && removedVersion >= load.versionOrZero()) {
+            return true;
+        }
+        return current != null && current.versionOrZero() > load.versionOrZero();
+    }
+
+    private void index(IndexedLoad load) {
+        addPosting(byLoadingCity, load.loadingCityKey(), load);
+        addPosting(byUnloadingCity, load.unloadingCityKey(), load);
+        addPosting(byLane, laneKey(load.loadingCityKey(), load.unloadingCityKey()), load);
+        addPosting(byTruckType, load.truckTypeKey(), load);
+        byLoadingDate.add(load);
+        if (load.truckTypeKey() != null) {
+            rankedByTruckType.compute(load.truckTypeKey(), (k, ranked) -> {
+                NavigableSet<IndexedLoad> set = ranked != null ? ranked : new ConcurrentSkipListSet<>(MATCHING_ORDER);
+                set.add(load);
+                return set;
+            });
+        }
+    }
+
+    private void unindex(IndexedLoad load) {
+        if (load == null) {
+            return;
+        }
+        removePosting(byLoadingCity, load.loadingCityKey(), load);
+        removePosting(byUnloadingCity, load.unloadingCityKey(), load);
+        removePosting(byLane, laneKey(load.loadingCityKey(), load.unloadingCityKey()), load);
+        removePosting(byTruckType, load.truckTypeKey(), load);
+        byLoadingDate.remove(load);
+        if (load.truckTypeKey() != null) {
+            rankedByTruckType.computeIfPresent(load.truckTypeKey(), (k, ranked) -> {
+                ranked.remove(load);
+                return ranked.isEmpty() ? null : ranked;
+            });
+        }
+    }
+
+    private static void addPosting(Map<String, Posting> postings, String key, IndexedLoad load) {
+        if (key != null) {
+            postings.compute(key, (k, posting) -> {
+                Posting target = posting != null ? posting : new Posting();
+                target.add(load);
+                return target;
+            });
+        }
+    }
+
+    private static void removePosting(Map<String, Posting> postings, String key, IndexedLoad load) {
+        if (key != null) {
+            postings.computeIfPresent(key, (k, posting) -> {
+                posting.remove(load);
+                return posting.size() == 0 ? null : posting;
+            });
+        }
+    }
+
+    /**
+     * The search key of a lane, or null unless both cities are known.
+     */
+    private static String laneKey(String loadingCityKey, String unloadingCityKey) {
+        return loadingCityKey == null || unloadingCityKey == null ? null : loadingCityKey + '\n' + unloadingCityKey;
+    }
+
+    /**
+     * Returns the posting set of a filter value: null if the filter is not supplied,
+     * an empty set if no open load has that value.
+     */
+    private static Posting posting(Map<String, Posting> postings, String key) {
+        return key == null ? null : postings.getOrDefault(key, Posting.EMPTY);
+    }
+
+    private static Posting smallest(Posting... postings) {
+        return Stream.of(postings)
+                .filter(posting -> posting != null)
+                .min(Comparator.comparingInt(Posting::size))
+                .orElse(null);
+    }
+
+    /**
+     * Walks loads in loading date order from the start of the date window and stops after
+     * {@code limit} matches or at the end of the window.
+     */
+    private List<IndexedLoad> walkByLoadingDate(NavigableSet<IndexedLoad> ordered, LoadSearchCriteria criteria, int limit) {
+        NavigableSet<IndexedLoad> window = criteria.loadingFrom() == null
+                ? ordered
+                : ordered.tailSet(IndexedLoad.probe(criteria.loadingFrom()), true);
+        List<IndexedLoad> matches = new ArrayList<>(Math.min(limit, 64));
+        for (IndexedLoad load : window) {
+            if (matches.size() == limit
+                    || (criteria.loadingTo() != null
+                        && (load.loadingDate() == null || load.loadingDate().after(criteria.loadingTo())))) {
+                break;
+            }
+            // Skip entries superseded by a concurrent update; the filters are checked first as they are cheaper
+            if (criteria.matches(load) && loads.get(load.loadId()) == load) {
+                matches.add(load);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * The open loads with one value of a search key, in loading date order. The size is counted
+     * separately because a skip list counts its elements by walking them.
+     */
+    private static final class Posting {
+
+        static final Posting EMPTY = new Posting();
+
+        private final NavigableSet<IndexedLoad> loads = new ConcurrentSkipListSet<>(LOADING_DATE_ORDER);
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(IndexedLoad load) {
+            if (loads.add(load)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(IndexedLoad load) {
+            if (loads.remove(load)) {
+                size.decrementAndGet();
+            }
+        }
+
+        NavigableSet<IndexedLoad> loads() {
+            return loads;
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+
+    /**
+     * Immutable copy of an open load as held by the index, with its normalized search keys.
+     */
+    public record IndexedLoad(
+            UUID loadId,
+            String shipperId,
+            String loadingCity,
+            String unloadingCity,
+            Timestamp loadingDate,
+            String productType,
+            double weight,
+            WeightUnit weightUnit,
+            String truckType,
+            int numOfTrucks,
+            int allocatedTrucks,
+            LoadStatus status,
+            Timestamp datePosted,
+            Long version,
+            String loadingCityKey,
+            String unloadingCityKey,
+            String truckTypeKey
+    ) {
+
+        static IndexedLoad of(Load load) {
+            return new IndexedLoad(load.getLoadId(), load.getShipperId(), load.getLoadingCity(), load.getUnloadingCity(),
+                    load.getLoadingDate(), load.getProductType(), load.getWeight(), load.getWeightUnit(),
+                    load.getTruckType(), load.getNumOfTrucks(), load.getAllocatedTrucks(), load.getStatus(),
+                    load.getDatePosted(), load.getVersion(),
+                    LoadSearchCriteria.normalize(load.getLoadingCity()),
+                    LoadSearchCriteria.normalize(load.getUnloadingCity()),
+                    LoadSearchCriteria.normalize(load.getTruckType()));
+        }
+
+        /**
+         * A search key that sorts before every load with the given loading date.
+         */
+        static IndexedLoad probe(Timestamp loadingDate) {
+            return new IndexedLoad(MIN_UUID, null, null, null, loadingDate, null, 0, null, null,
+                    0, 0, null, null, null, null, null, null);
+        }
+
+        public double weightInKg() {
+            return weightUnit == null ? weight : weightUnit.toKilograms(weight);
+        }
+
+        public int remainingTrucks() {
+            return Math.max(0, numOfTrucks - allocatedTrucks);
+        }
+
+        long versionOrZero() {
+            return version == null ? 0L : version;
+        }
+
+        public LoadResponse toResponse() {
+            return new LoadResponse(loadId, shipperId, loadingCity, unloadingCity, loadingDate, productType,
+                    weight, weightUnit, truckType, numOfTrucks, status, datePosted);
+        }
+    }
+}
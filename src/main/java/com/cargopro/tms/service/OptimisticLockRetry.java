@@ -0,0 +1,98 @@
+package com.cargopro.tms.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a whole transaction when it fails on an optimistic lock conflict.
+ *
+ * Attempts are separated by an exponential backoff with full jitter, so competing writers
+ * spread out instead of colliding again. The number of retries each call needed is recorded
+ * in the "tms.booking.retries" distribution summary. A thread interrupted while backing off
+ * stops retrying and gets the last conflict, with its interrupt flag restored.
+ */
+@Component
+public class OptimisticLockRetry {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticLockRetry(@Value("${tms.booking.retry.max-attempts:5}") int maxAttempts,
+                               @Value("${tms.booking.retry.initial-backoff-ms:10}") long initialBackoffMillis,
+                               @Value("${tms.booking.retry.max-backoff-ms:200}") long maxBackoffMillis,
+                               MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs an action, retrying it on ObjectOptimisticLockingFailureException.
+     *
+     * @param operation Name of the operation, used as the metric tag.
+     * @param action    The action to run; must start its own transaction on every attempt.
+     * @return The result of the first successful attempt.
+     * @throws ObjectOptimisticLockingFailureException if every attempt conflicted, or the thread
+     *         was interrupted while waiting to retry.
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                T result = action.get();
+                recordRetries(operation, attempt - 1);
+                return result;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    recordRetries(operation, attempt - 1);
+                    Counter.builder("tms.booking.retries.exhausted")
+                            .tag("operation", operation)
+                            .register(meterRegistry)
+                            .increment();
+                    throw e;
+                }
+                if (!backoff(attempt)) {
+                    recordRetries(operation, attempt - 1);
+                    throw e;
+                }
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Waits before the next attempt.
+     *
+     * @return false if the thread was interrupted, in which case no further attempt should be made.
+     */
+    private boolean backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void recordRetries(String operation, int retries) {
+        DistributionSummary.builder("tms.booking.retries")
+                .description("Optimistic lock retries needed per booking operation")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(retries);
+    }
+}
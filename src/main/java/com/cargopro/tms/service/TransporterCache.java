@@ -0,0 +1,61 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.repository.TransporterRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-through cache of transporter snapshots (rating and truck counts), which change far less
+ * often than they are read by bid submission and load matching.
+ *
+ * A snapshot is read from the database with one query on first use and dropped whenever the
+ * transporter's rating, fleet or truck counts change, once that transaction commits; the TTL
+ * bounds staleness caused by writes on other instances. Hits, misses and evictions are published
+ * as the cache.* metrics tagged cache=transporters.
+ */
+@Component
+public class TransporterCache {
+
+    private final TransporterRepository transporterRepository;
+    private final Cache<UUID, TransporterSnapshot> snapshots;
+
+    public TransporterCache(TransporterRepository transporterRepository, MeterRegistry meterRegistry,
+                            @Value("${tms.transporter-cache.max-entries:100000}") long maxEntries,
+                            @Value("${tms.transporter-cache.ttl:PT10M}") Duration ttl) {
+        this.transporterRepository = transporterRepository;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "transporters");
+    }
+
+    /**
+     * Returns the snapshot of a transporter, reading it from the database on a miss.
+     *
+     * @param transporterId The ID of the transporter.
+     * @return The snapshot; empty for an unknown transporter, which is not cached.
+     */
+    public Optional<TransporterSnapshot> get(UUID transporterId) {
+        return Optional.ofNullable(snapshots.get(transporterId, id ->
+                transporterRepository.findWithTrucks(id).map(TransporterSnapshot::of).orElse(null)));
+    }
+
+    /**
+     * Drops the cached snapshot of a transporter once the transaction commits.
+     */
+    public void transporterChanged(UUID transporterId) {
+        AfterCommit.run(() -> snapshots.invalidate(transporterId));
+    }
+}
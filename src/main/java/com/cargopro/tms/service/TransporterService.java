@@ -1,15 +1,22 @@
 package com.cargopro.tms.service;
 
+import com.cargopro.tms.dto.LoadResponse;
 import com.cargopro.tms.dto.TransporterRequest;
 import com.cargopro.tms.entity.Transporter;
 import com.cargopro.tms.entity.TransporterTruckCapacity;
+import com.cargopro.tms.event.TransporterRatingChangedEvent;
+import com.cargopro.tms.exception.DuplicateTruckTypeException;
 import com.cargopro.tms.exception.ResourceNotFoundException;
 import com.cargopro.tms.repository.TransporterRepository;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -21,9 +28,16 @@ import java.util.UUID;
 public class TransporterService {
 
     private final TransporterRepository transporterRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransporterCache transporterCache;
+    private final LoadService loadService;
 
-    public TransporterService(TransporterRepository transporterRepository) {
+    public TransporterService(TransporterRepository transporterRepository, ApplicationEventPublisher eventPublisher,
+                              TransporterCache transporterCache, LoadService loadService) {
         this.transporterRepository = transporterRepository;
+        this.eventPublisher = eventPublisher;
+        this.transporterCache = transporterCache;
+        this.loadService = loadService;
     }
 
     /**
@@ -32,6 +46,7 @@ public class TransporterService {
      *
      * @param request The transporter registration request.
      * @return The saved Transporter entity.
+     * @throws DuplicateTruckTypeException if a truck type is listed more than once, ignoring case.
      */
     @Transactional // Ensures the database operation is atomic.
     public Transporter registerTransporter(TransporterRequest request) {
@@ -39,6 +54,7 @@ public class TransporterService {
         transporter.setCompanyName(request.companyName());
         transporter.setRating(request.rating());
         if (request.availableTrucks() != null) {
+            requireDistinctTruckTypes(request.availableTrucks());
             transporter.setAvailableTrucks(request.availableTrucks());
         }
         return transporterRepository.save(transporter);
@@ -52,9 +68,11 @@ public class TransporterService {
      * @param transporterId   The ID of the transporter.
      * @param capacityUpdates The list of new truck capacities.
      * @return The updated Transporter entity.
+     * @throws DuplicateTruckTypeException if a truck type is listed more than once, ignoring case.
      */
     @Transactional // Ensures the update is committed as a single transaction.
     public Transporter updateTruckCapacity(UUID transporterId, List<TransporterTruckCapacity> capacityUpdates) {
+        requireDistinctTruckTypes(capacityUpdates);
         Transporter transporter = transporterRepository.findById(transporterId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transporter not found with id: " + transporterId));
 
@@ -63,6 +81,32 @@ public class TransporterService {
         // Hibernate will handle the foreign key updates/inserts.
         transporter.setAvailableTrucks(capacityUpdates);
 
+        // The cached truck counts and servable truck types are now stale.
+        transporterCache.transporterChanged(transporterId);
+
+        return transporterRepository.save(transporter);
+    }
+
+    /**
+     * Updates the rating of a specific transporter.
+     * Publishes a TransporterRatingChangedEvent so that the scores of the transporter's
+     * pending bids are recomputed in the background once this transaction commits.
+     *
+     * @param transporterId The ID of the transporter.
+     * @param rating        The new rating.
+     * @return The updated Transporter entity.
+     */
+    @Transactional
+    public Transporter updateRating(UUID transporterId, double rating) {
+        Transporter transporter = transporterRepository.findById(transporterId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transporter not found with id: " + transporterId));
+
+        if (transporter.getRating() != rating) {
+            transporter.setRating(rating);
+            transporterCache.transporterChanged(transporterId);
+            eventPublisher.publishEvent(new TransporterRatingChangedEvent(transporterId, rating));
+        }
+
         return transporterRepository.save(transporter);
     }
 
@@ -78,4 +122,37 @@ public class TransporterService {
         return transporterRepository.findById(transporterId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transporter not found with id: " + transporterId));
     }
+
+    /**
+     * Retrieves the open loads a transporter can serve: those requiring a truck type of which
+     * the transporter has at least one truck available.
+     *
+     * @param transporterId The ID of the transporter.
+     * @param limit         The maximum number of loads to return.
+     * @return The loads, earliest loading date first, then the most remaining trucks first.
+     * @throws ResourceNotFoundException if the transporter is not found.
+     */
+    public List<LoadResponse> getMatchingLoads(UUID transporterId, int limit) {
+        Set<String> truckTypes = transporterCache.get(transporterId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transporter not found with id: " + transporterId))
+                .truckTypesWithTrucks();
+        if (truckTypes.isEmpty()) {
+            return List.of();
+        }
+        return loadService.getOpenLoadsForTruckTypes(truckTypes, limit);
+    }
+
+    /**
+     * Rejects capacity lists that name a truck type twice, ignoring case. Capacity is booked and
+     * restored by the lower-cased truck type, which the database keeps unique per transporter.
+     */
+    private static void requireDistinctTruckTypes(List<TransporterTruckCapacity> capacities) {
+        Set<String> seen = new HashSet<>();
+        for (TransporterTruckCapacity capacity : capacities) {
+            String truckType = capacity.getTruckType();
+            if (truckType != null && !seen.add(truckType.toLowerCase(Locale.ROOT))) {
+                throw new DuplicateTruckTypeException("Truck type " + truckType + " is listed more than once.");
+            }
+        }
+    }
 }
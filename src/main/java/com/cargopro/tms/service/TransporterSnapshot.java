@@ -0,0 +1,59 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.entity.Transporter;
+import com.cargopro.tms.entity.TransporterTruckCapacity;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable copy of the parts of a Transporter that bidding and booking read: its rating and
+ * its available trucks per truck type. Kept in TransporterCache.
+ *
+ * @param transporterId The ID of the transporter.
+ * @param rating        The rating (1-5).
+ * @param truckCounts   Available trucks by lower-cased truck type.
+ */
+public record TransporterSnapshot(UUID transporterId, double rating, Map<String, Integer> truckCounts) {
+
+    public TransporterSnapshot {
+        truckCounts = Map.copyOf(truckCounts);
+    }
+
+    static TransporterSnapshot of(Transporter transporter) {
+        Map<String, Integer> truckCounts = transporter.getAvailableTrucks() == null ? Map.of()
+                : transporter.getAvailableTrucks().stream().collect(Collectors.toMap(
+                        capacity -> key(capacity.getTruckType()), TransporterTruckCapacity::getCount,
+                        // Truck types are unique per transporter; keep the first should older data repeat one.
+                        (first, second) -> first));
+        return new TransporterSnapshot(transporter.getTransporterId(), transporter.getRating(), truckCounts);
+    }
+
+    /**
+     * Returns the available trucks of a truck type, matched case-insensitively.
+     *
+     * @return The count, or null if the transporter has no record for the truck type.
+     */
+    public Integer trucksOf(String truckType) {
+        return truckCounts.get(key(truckType));
+    }
+
+    /**
+     * Returns the truck types, normalized like LoadSearchCriteria keys, of which at least one truck is available.
+     */
+    public Set<String> truckTypesWithTrucks() {
+        return truckCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> LoadSearchCriteria.normalize(entry.getKey()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static String key(String truckType) {
+        return truckType == null ? "" : truckType.toLowerCase(Locale.ROOT);
+    }
+}
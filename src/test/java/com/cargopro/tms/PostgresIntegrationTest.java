@@ -0,0 +1,117 @@
+package com.cargopro.tms;
+
+import com.cargopro.CargoproServiceApplication;
+import com.cargopro.tms.dto.BidRequest;
+import com.cargopro.tms.dto.LoadRequest;
+import com.cargopro.tms.dto.TransporterRequest;
+import com.cargopro.tms.entity.TransporterTruckCapacity;
+import com.cargopro.tms.entity.WeightUnit;
+import com.cargopro.tms.service.BidService;
+import com.cargopro.tms.service.LoadService;
+import com.cargopro.tms.service.TransporterService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Base class for tests that run against the full application and a real PostgreSQL database.
+ *
+ * The repositories rely on PostgreSQL features (native UPDATE ... RETURNING, lateral joins,
+ * FOR UPDATE SKIP LOCKED), so an embedded PostgreSQL server is started once per JVM instead of
+ * using an in-memory database. All subclasses share one application context; tests isolate their
+ * data by creating fresh loads and transporters. Scheduled jobs are pushed out of the test run.
+ */
+@SpringBootTest(classes = CargoproServiceApplication.class, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "tms.expiry.initial-delay-ms=3600000",
+        "tms.allocation.reconcile-initial-delay-ms=3600000"
+})
+public abstract class PostgresIntegrationTest {
+
+    protected static final String TRUCK_TYPE = "Flatbed";
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @Autowired
+    protected LoadService loadService;
+
+    @Autowired
+    protected BidService bidService;
+
+    @Autowired
+    protected TransporterService transporterService;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    protected UUID newTransporter(double rating, int trucks) {
+        TransporterTruckCapacity capacity = new TransporterTruckCapacity();
+        capacity.setTruckType(TRUCK_TYPE);
+        capacity.setCount(trucks);
+        return transporterService.registerTransporter(new TransporterRequest("Transporter " + UUID.randomUUID(), rating,
+                List.of(capacity))).getTransporterId();
+    }
+
+    protected UUID newLoad(int numOfTrucks) {
+        LoadRequest request = new LoadRequest("shipper-" + UUID.randomUUID(), "Pune", "Delhi",
+                Timestamp.from(Instant.now().plus(30, ChronoUnit.DAYS)), "Steel", 1000, WeightUnit.KG, TRUCK_TYPE, numOfTrucks);
+        return loadService.createLoad(request).loadId();
+    }
+
+    protected UUID newBid(UUID loadId, UUID transporterId, double proposedRate, int trucksOffered) {
+        return bidService.submitBid(new BidRequest(loadId, transporterId, proposedRate, trucksOffered)).bidId();
+    }
+
+    /**
+     * Returns the transporter's available trucks of the test truck type, read from the database.
+     */
+    protected int availableTrucks(UUID transporterId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count FROM transporter_truck_capacities WHERE transporter_id = ? AND truck_type = ?",
+                Integer.class, transporterId, TRUCK_TYPE);
+    }
+
+    /**
+     * Returns the number of JDBC statements Hibernate prepares while the action runs.
+     */
+    protected long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+        action.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+}
@@ -0,0 +1,56 @@
+package com.cargopro.tms.job;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.dto.BookingResponse;
+import com.cargopro.tms.service.BookingService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reconciliation repairs a drifted allocation counter and moves the load's status with it.
+ */
+class AllocatedTrucksReconciliationJobTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AllocatedTrucksReconciliationJob reconciliationJob;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void loadWhoseBookingsCoverAllTrucksBecomesBooked() {
+        UUID loadId = newLoad(2);
+        UUID booked = newBid(loadId, newTransporter(4, 5), 1000, 1);
+        UUID pending = newBid(loadId, newTransporter(4, 5), 1100, 1);
+        BookingResponse booking = bookingService.acceptBidAndCreateBooking(booked, 1, 1000);
+        jdbcTemplate.update("UPDATE bookings SET allocated_trucks = 2 WHERE booking_id = ?", booking.bookingId());
+
+        reconciliationJob.reconcile();
+
+        assertThat(load(loadId, "allocated_trucks")).isEqualTo("2");
+        assertThat(load(loadId, "status")).isEqualTo("BOOKED");
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM bids WHERE bid_id = ?", String.class, pending))
+                .isEqualTo("REJECTED");
+    }
+
+    @Test
+    void bookedLoadWithTrucksLeftReopens() {
+        UUID loadId = newLoad(2);
+        BookingResponse booking = bookingService.acceptBidAndCreateBooking(newBid(loadId, newTransporter(4, 5), 1000, 2), 2, 1000);
+        jdbcTemplate.update("UPDATE bookings SET allocated_trucks = 1 WHERE booking_id = ?", booking.bookingId());
+
+        reconciliationJob.reconcile();
+
+        assertThat(load(loadId, "allocated_trucks")).isEqualTo("1");
+        assertThat(load(loadId, "status")).isEqualTo("OPEN_FOR_BIDS");
+    }
+
+    private String load(UUID loadId, String column) {
+        return jdbcTemplate.queryForObject("SELECT " + column + "::text FROM loads WHERE load_id = ?", String.class, loadId);
+    }
+}
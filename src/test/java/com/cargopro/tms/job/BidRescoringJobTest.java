@@ -0,0 +1,60 @@
+package com.cargopro.tms.job;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.entity.BidStatus;
+import com.cargopro.tms.repository.BidRepository;
+import com.cargopro.tms.scoring.WeightedBidScorer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * A rating change rescores the transporter's pending bids in memory, and a score computed from an outdated rating is never stored.
+ */
+class BidRescoringJobTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void ratingChangeRescoresPendingBids() throws InterruptedException {
+        UUID transporterId = newTransporter(2, 5);
+        UUID first = newBid(newLoad(2), transporterId, 1000, 1);
+        UUID second = newBid(newLoad(2), transporterId, 2000, 1);
+
+        transporterService.updateRating(transporterId, 5);
+
+        double expectedFirst = WeightedBidScorer.BALANCED.score(1000, 5);
+        for (int i = 0; i < 100 && Math.abs(score(first) - expectedFirst) > 1e-12; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(score(first)).isCloseTo(expectedFirst, within(1e-12));
+        assertThat(score(second)).isCloseTo(WeightedBidScorer.BALANCED.score(2000, 5), within(1e-12));
+    }
+
+    @Test
+    void scoreFromAnOutdatedRatingIsSkipped() {
+        UUID transporterId = newTransporter(4, 5);
+        UUID bidId = newBid(newLoad(2), transporterId, 1000, 1);
+        double before = score(bidId);
+
+        int updated = transactionTemplate.execute(status -> bidRepository.updateScores(
+                new UUID[]{bidId}, new double[]{3}, new double[]{42}, BidStatus.PENDING.name()));
+
+        assertThat(updated).isZero();
+        assertThat(score(bidId)).isEqualTo(before);
+    }
+
+    private double score(UUID bidId) {
+        return jdbcTemplate.queryForObject("SELECT score FROM bids WHERE bid_id = ?", Double.class, bidId);
+    }
+}
@@ -0,0 +1,64 @@
+package com.cargopro.tms.job;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.service.LoadLocks;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The expiry job closes loads past their loading date, but not while a booking holds the load's lock.
+ */
+class LoadExpiryJobTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private LoadExpiryJob loadExpiryJob;
+
+    @Autowired
+    private LoadLocks loadLocks;
+
+    @Test
+    void expiresALoadOnlyOnceNoBookingHoldsItsLock() throws Exception {
+        UUID loadId = newLoad(2);
+        UUID bidId = newBid(loadId, newTransporter(4, 5), 1000, 1);
+        jdbcTemplate.update("UPDATE loads SET loading_date = now() - interval '1 day' WHERE load_id = ?", loadId);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> booking = CompletableFuture.runAsync(() -> loadLocks.withLock(loadId, () -> {
+            locked.countDown();
+            await(release);
+            return null;
+        }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        loadExpiryJob.expireLoads();
+        assertThat(loadStatus(loadId)).isEqualTo("OPEN_FOR_BIDS");
+
+        release.countDown();
+        booking.get(5, TimeUnit.SECONDS);
+        loadExpiryJob.expireLoads();
+        assertThat(loadStatus(loadId)).isEqualTo("EXPIRED");
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM bids WHERE bid_id = ?", String.class, bidId))
+                .isEqualTo("REJECTED");
+    }
+
+    private String loadStatus(UUID loadId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM loads WHERE load_id = ?", String.class, loadId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.cargopro.tms.repository;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every filter combination of GET /load and GET /bid is planned as a scan of the index built for it.
+ *
+ * The statements have the shape LoadSpecifications and BidSpecifications produce: one equality
+ * predicate per supplied filter, newest first, one page plus one row. They are explained against
+ * 50k loads (mostly BOOKED or EXPIRED, as in production) and 100k bids, inserted and analyzed in
+ * a transaction that is rolled back afterwards.
+ */
+class FilterIndexPlanTest extends PostgresIntegrationTest {
+
+    private static final Pattern INDEX_SCAN = Pattern.compile("(?:Index Only Scan|Index Scan|Bitmap Index Scan)(?: Backward)? (?:using|on) (\\w+)");
+
+    private static final String SHIPPER = "'explain-shipper-7'";
+    private static final String LOAD = "md5('explain-load-7')::uuid";
+    private static final String TRANSPORTER = "md5('explain-transporter-7')::uuid";
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void everyLoadFilterCombinationUsesItsIndex() {
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("", "idx_loads_date_posted");
+        expected.put("shipper_id = " + SHIPPER, "idx_loads_shipper_date_posted");
+        expected.put("status = 'POSTED'", "idx_loads_status_date_posted");
+        expected.put("shipper_id = " + SHIPPER + " AND status = 'POSTED'", "idx_loads_shipper_status_date_posted");
+
+        Map<String, List<String>> plans = explainWithData(expected.keySet(), where ->
+                "SELECT * FROM loads " + where + " ORDER BY date_posted DESC, load_id DESC LIMIT 21");
+
+        expected.forEach((where, index) -> assertScansIndex(plans.get(where), index));
+    }
+
+    @Test
+    void everyBidFilterCombinationUsesItsIndex() {
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("", "idx_bids_submitted");
+        expected.put("load_id = " + LOAD, "idx_bids_load_submitted");
+        expected.put("transporter_id = " + TRANSPORTER, "idx_bids_transporter_submitted");
+        expected.put("status = 'ACCEPTED'", "idx_bids_status_submitted");
+        expected.put("load_id = " + LOAD + " AND transporter_id = " + TRANSPORTER, "idx_bids_load_submitted");
+        expected.put("load_id = " + LOAD + " AND status = 'ACCEPTED'", "idx_bids_load_status_score");
+        expected.put("transporter_id = " + TRANSPORTER + " AND status = 'ACCEPTED'", "idx_bids_transporter_status");
+        expected.put("load_id = " + LOAD + " AND transporter_id = " + TRANSPORTER + " AND status = 'ACCEPTED'",
+                "idx_bids_load_status_score");
+
+        Map<String, List<String>> plans = explainWithData(expected.keySet(), where ->
+                "SELECT * FROM bids " + where + " ORDER BY submitted_at DESC, bid_id DESC LIMIT 21");
+
+        expected.forEach((where, index) -> assertScansIndex(plans.get(where), index));
+    }
+
+    /**
+     * Inserts the test data, explains one statement per WHERE clause and rolls everything back.
+     *
+     * @return The plan of each statement, one line per element, by WHERE clause.
+     */
+    private Map<String, List<String>> explainWithData(Iterable<String> whereClauses, Function<String, String> statement) {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            insertData();
+            Map<String, List<String>> plans = new LinkedHashMap<>();
+            for (String where : whereClauses) {
+                String sql = statement.apply(where.isEmpty() ? "" : "WHERE " + where);
+                plans.put(where, jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+            }
+            return plans;
+        });
+    }
+
+    private void insertData() {
+        jdbcTemplate.update("""
+                INSERT INTO loads (load_id, shipper_id, loading_city, unloading_city, loading_date, product_type,
+                                   weight, weight_unit, truck_type, num_of_trucks, allocated_trucks, status,
+                                   date_posted, version, bid_set_version)
+                SELECT md5('explain-load-' || i)::uuid, 'explain-shipper-' || (i % 500), 'Pune', 'Delhi',
+                       now() + interval '30 days', 'Steel', 1000, 'KG', 'Flatbed', 2, 0,
+                       CASE i % 50 WHEN 0 THEN 'POSTED' WHEN 1 THEN 'OPEN_FOR_BIDS' WHEN 2 THEN 'CANCELLED'
+                                   ELSE (ARRAY['BOOKED', 'EXPIRED'])[i % 2 + 1] END,
+                       now() - i * interval '1 second', 0, 0
+                FROM generate_series(1, 50000) AS i""");
+        jdbcTemplate.update("""
+                INSERT INTO bids (bid_id, load_id, transporter_id, proposed_rate, trucks_offered, status,
+                                  submitted_at, score, version)
+                SELECT md5('explain-bid-' || i)::uuid, md5('explain-load-' || (i % 20000))::uuid,
+                       md5('explain-transporter-' || (i % 1000))::uuid, 1000 + i % 500, 1,
+                       (ARRAY['PENDING', 'ACCEPTED', 'REJECTED'])[i % 3 + 1],
+                       now() - i * interval '1 second', 0.001, 0
+                FROM generate_series(1, 100000) AS i""");
+        jdbcTemplate.execute("ANALYZE loads");
+        jdbcTemplate.execute("ANALYZE bids");
+    }
+
+    private static void assertScansIndex(List<String> plan, String index) {
+        List<String> scanned = plan.stream()
+                .map(INDEX_SCAN::matcher)
+                .filter(Matcher::find)
+                .map(matcher -> matcher.group(1))
+                .toList();
+        assertThat(scanned).as(String.join("\n", plan)).contains(index);
+        assertThat(plan).as(String.join("\n", plan)).noneMatch(line -> line.contains("Seq Scan"));
+    }
+}
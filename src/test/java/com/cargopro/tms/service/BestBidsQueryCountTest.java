@@ -0,0 +1,51 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.dto.BidResponse;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GET /load/{loadId}/best-bids must run a constant number of SQL statements, however many bids the load has.
+ */
+class BestBidsQueryCountTest extends PostgresIntegrationTest {
+
+    @Test
+    void bestBidsRunTheSameStatementsForFewAndManyBids() {
+        UUID fewBids = loadWithBids(3);
+        UUID manyBids = loadWithBids(60);
+
+        long forFewBids = countStatements(() -> loadService.getBestBids(fewBids, 5));
+        long forManyBids = countStatements(() -> loadService.getBestBids(manyBids, 5));
+
+        assertThat(forManyBids).isEqualTo(forFewBids).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void bestBidsAreServedFromTheLeaderboardOnceBuilt() {
+        UUID loadId = loadWithBids(20);
+        List<BidResponse> fromDatabase = loadService.getBestBids(loadId, 5);
+
+        AtomicReference<List<BidResponse>> fromLeaderboard = new AtomicReference<>();
+        assertThat(countStatements(() -> fromLeaderboard.set(loadService.getBestBids(loadId, 5)))).isZero();
+        assertThat(fromLeaderboard.get()).isEqualTo(fromDatabase)
+                .hasSize(5)
+                .isSortedAccordingTo(Comparator.comparingDouble(BidResponse::score).reversed());
+    }
+
+    private UUID loadWithBids(int bids) {
+        UUID loadId = newLoad(2);
+        UUID transporterId = newTransporter(4, 2);
+        for (int i = 0; i < bids; i++) {
+            newBid(loadId, transporterId, 1000 + 10 * i, 1);
+        }
+        return loadId;
+    }
+}
@@ -0,0 +1,154 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.allocation.AllocationObjective;
+import com.cargopro.tms.dto.BatchBookingResponse;
+import com.cargopro.tms.dto.BookingRequest;
+import com.cargopro.tms.dto.BookingResponse;
+import com.cargopro.tms.entity.BidStatus;
+import com.cargopro.tms.entity.LoadStatus;
+import com.cargopro.tms.exception.InvalidStatusTransitionException;
+import com.cargopro.tms.exception.LoadAlreadyBookedException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Booking state machine: which bids and loads can be booked, and what booking does to them.
+ */
+class BookingServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private LoadLocks loadLocks;
+
+    @Test
+    void bookingTheLastTrucksBooksTheLoadAndRejectsTheOtherBids() {
+        UUID loadId = newLoad(2);
+        UUID winner = newTransporter(4, 5);
+        UUID loser = newTransporter(4, 5);
+        UUID winningBid = newBid(loadId, winner, 1000, 2);
+        UUID losingBid = newBid(loadId, loser, 1100, 1);
+
+        BookingResponse booking = bookingService.acceptBidAndCreateBooking(winningBid, 2, 950);
+
+        assertThat(booking.rejectedBids()).isEqualTo(1);
+        assertThat(loadService.getLoadById(loadId).status()).isEqualTo(LoadStatus.BOOKED);
+        assertThat(bidService.getBidById(winningBid).status()).isEqualTo(BidStatus.ACCEPTED);
+        assertThat(bidService.getBidById(losingBid).status()).isEqualTo(BidStatus.REJECTED);
+        assertThat(availableTrucks(winner)).isEqualTo(3);
+        assertThatThrownBy(() -> bookingService.acceptBidAndCreateBooking(losingBid, 1, 1100))
+                .isInstanceOf(LoadAlreadyBookedException.class);
+    }
+
+    @Test
+    void rejectedBidCannotBeAcceptedAfterACancellationReopensTheLoad() {
+        UUID loadId = newLoad(2);
+        UUID winner = newTransporter(4, 5);
+        UUID loser = newTransporter(4, 5);
+        UUID losingBid = newBid(loadId, loser, 1100, 1);
+        BookingResponse booking = bookingService.acceptBidAndCreateBooking(newBid(loadId, winner, 1000, 2), 2, 950);
+
+        bookingService.cancelBooking(booking.bookingId());
+
+        assertThat(loadService.getLoadById(loadId).status()).isEqualTo(LoadStatus.OPEN_FOR_BIDS);
+        assertThatThrownBy(() -> bookingService.acceptBidAndCreateBooking(losingBid, 1, 1100))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        assertThat(availableTrucks(loser)).isEqualTo(5);
+    }
+
+    @Test
+    void acceptedBidCannotBeBookedTwice() {
+        UUID loadId = newLoad(4);
+        UUID transporterId = newTransporter(4, 5);
+        UUID bidId = newBid(loadId, transporterId, 1000, 2);
+        BookingResponse booking = bookingService.acceptBidAndCreateBooking(bidId, 2, 950);
+
+        assertThatThrownBy(() -> bookingService.acceptBidAndCreateBooking(bidId, 2, 950))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+
+        bookingService.cancelBooking(booking.bookingId());
+        assertThatThrownBy(() -> bookingService.acceptBidAndCreateBooking(bidId, 2, 950))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        assertThat(availableTrucks(transporterId)).isEqualTo(5);
+    }
+
+    @Test
+    void cancelledLoadCannotBeBooked() {
+        UUID loadId = newLoad(3);
+        UUID transporterId = newTransporter(4, 5);
+        UUID bidId = newBid(loadId, transporterId, 1000, 1);
+        loadService.cancelLoad(loadId);
+
+        assertThatThrownBy(() -> bookingService.acceptBidAndCreateBooking(bidId, 1, 1000))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        assertThatThrownBy(() -> bookingService.acceptBidsForLoad(loadId, List.of(new BookingRequest(bidId, 1, 1000))))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        assertThatThrownBy(() -> bookingService.autoAllocate(loadId, AllocationObjective.SCORE))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        assertThat(loadService.getLoadById(loadId).status()).isEqualTo(LoadStatus.CANCELLED);
+        assertThat(availableTrucks(transporterId)).isEqualTo(5);
+    }
+
+    @Test
+    void batchReportsBidsThatAreNoLongerPendingWithoutBookingThemAgain() {
+        UUID loadId = newLoad(5);
+        UUID first = newTransporter(4, 5);
+        UUID second = newTransporter(4, 5);
+        UUID acceptedBid = newBid(loadId, first, 1000, 1);
+        UUID pendingBid = newBid(loadId, second, 1000, 1);
+        bookingService.acceptBidAndCreateBooking(acceptedBid, 1, 1000);
+
+        BatchBookingResponse response = bookingService.acceptBidsForLoad(loadId, List.of(
+                new BookingRequest(acceptedBid, 1, 1000),
+                new BookingRequest(pendingBid, 1, 1000)));
+
+        assertThat(response.results().get(0).booked()).isFalse();
+        assertThat(response.results().get(0).error()).contains("ACCEPTED");
+        assertThat(response.results().get(1).booked()).isTrue();
+        assertThat(response.allocatedTrucks()).isEqualTo(2);
+        assertThat(availableTrucks(first)).isEqualTo(4);
+        assertThat(availableTrucks(second)).isEqualTo(4);
+    }
+
+    @Test
+    void bidSubmittedWhileABookingFillsTheLoadIsRefused() throws Exception {
+        UUID loadId = newLoad(1);
+        UUID winningBid = newBid(loadId, newTransporter(4, 5), 1000, 1);
+        UUID lateTransporter = newTransporter(4, 5);
+
+        // The booking holds the load's lock while the late bid arrives, then fills the load.
+        CountDownLatch locked = new CountDownLatch(1);
+        CompletableFuture<BookingResponse> booking = CompletableFuture.supplyAsync(() -> loadLocks.withLock(loadId, () -> {
+            locked.countDown();
+            sleep(200);
+            return bookingService.acceptBidAndCreateBooking(winningBid, 1, 1000);
+        }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> newBid(loadId, lateTransporter, 900, 1))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        assertThat(booking.get(5, TimeUnit.SECONDS).rejectedBids()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bids WHERE load_id = ? AND status = 'PENDING'",
+                Integer.class, loadId)).isZero();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.exception.LoadAlreadyBookedException;
+import com.cargopro.tms.repository.BidRepository;
+import com.cargopro.tms.repository.BookingRepository;
+import com.cargopro.tms.repository.LoadRepository;
+import com.cargopro.tms.repository.TransporterRepository;
+import com.cargopro.tms.repository.TransporterTruckCapacityRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 64 concurrent acceptors on 10 hot loads: bookings on the same load queue on its lock instead of
+ * conflicting, no load is ever overbooked, and more bookings succeed per second than without the lock.
+ *
+ * The same scenario runs twice on fresh loads, through two BookingService instances that differ only
+ * in their LoadLocks: the real striped locks, and a pass-through that leaves every conflict to the
+ * Load version check and OptimisticLockRetry.
+ */
+class BookingStressTest extends PostgresIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingStressTest.class);
+
+    private static final int ACCEPTORS = 64;
+    private static final int LOADS = 10;
+    private static final int TRUCKS_PER_LOAD = 32;
+    private static final int BIDS_PER_LOAD = 40;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BidRepository bidRepository;
+    @Autowired
+    private LoadRepository loadRepository;
+    @Autowired
+    private TransporterRepository transporterRepository;
+    @Autowired
+    private TransporterTruckCapacityRepository truckCapacityRepository;
+    @Autowired
+    private BidLeaderboard bidLeaderboard;
+    @Autowired
+    private OpenLoadIndex openLoadIndex;
+    @Autowired
+    private TransporterCache transporterCache;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void hotLoadsAreNeverOverbookedAndLockedBookingsNeverRetry() throws InterruptedException {
+        Run unlocked = run(new LoadLocks(1, 0) {
+            @Override
+            public <T> T withLock(UUID loadId, Supplier<T> action) {
+                return action.get();
+            }
+        });
+        Run locked = run(new LoadLocks(1024, 30_000));
+
+        log.info("Unlocked: {} bookings in {} ms ({} per second), {} retries, {} failed",
+                unlocked.booked, unlocked.millis, Math.round(unlocked.perSecond()), unlocked.retries, unlocked.failed);
+        log.info("Locked:   {} bookings in {} ms ({} per second), {} retries, {} failed",
+                locked.booked, locked.millis, Math.round(locked.perSecond()), locked.retries, locked.failed);
+
+        for (Run run : List.of(unlocked, locked)) {
+            for (UUID loadId : run.loadIds) {
+                Map<String, Object> load = jdbcTemplate.queryForMap(
+                        "SELECT allocated_trucks, num_of_trucks, status FROM loads WHERE load_id = ?", loadId);
+                Integer confirmed = jdbcTemplate.queryForObject(
+                        "SELECT COALESCE(SUM(allocated_trucks), 0) FROM bookings WHERE load_id = ? AND status = 'CONFIRMED'",
+                        Integer.class, loadId);
+                assertThat(confirmed).isLessThanOrEqualTo(TRUCKS_PER_LOAD).isEqualTo(load.get("allocated_trucks"));
+            }
+        }
+
+        // Every truck of every load is booked, without a single conflict, retry or failure.
+        assertThat(locked.booked).isEqualTo(LOADS * TRUCKS_PER_LOAD);
+        assertThat(locked.retries).isZero();
+        assertThat(locked.failed).isZero();
+        assertThat(locked.perSecond()).isGreaterThan(unlocked.perSecond());
+    }
+
+    private Run run(LoadLocks loadLocks) throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingService bookingService = new BookingService(bookingRepository, bidRepository, loadRepository,
+                transporterRepository, truckCapacityRepository, bidLeaderboard, openLoadIndex, transporterCache,
+                bidService, loadLocks, new OptimisticLockRetry(5, 10, 200, meterRegistry), transactionTemplate,
+                entityManagerFactory, true);
+
+        // Bids are queued round-robin across the loads, so every load is hot at every moment.
+        List<UUID> loadIds = new ArrayList<>();
+        for (int i = 0; i < LOADS; i++) {
+            loadIds.add(newLoad(TRUCKS_PER_LOAD));
+        }
+        Queue<UUID> bids = new ConcurrentLinkedQueue<>();
+        for (int b = 0; b < BIDS_PER_LOAD; b++) {
+            UUID transporterId = newTransporter(4, LOADS);
+            for (UUID loadId : loadIds) {
+                bids.add(newBid(loadId, transporterId, 1000 + b, 1));
+            }
+        }
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService acceptors = Executors.newFixedThreadPool(ACCEPTORS);
+        long start = System.nanoTime();
+        for (int i = 0; i < ACCEPTORS; i++) {
+            acceptors.execute(() -> {
+                UUID bidId;
+                while ((bidId = bids.poll()) != null) {
+                    try {
+                        bookingService.acceptBidAndCreateBooking(bidId, 1, 1000);
+                        booked.incrementAndGet();
+                    } catch (LoadAlreadyBookedException e) {
+                        // The load filled up before this bid's turn.
+                    } catch (RuntimeException e) {
+                        // Retries exhausted (LoadBusyException) or a deadlock between concurrent bookings.
+                        failed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        acceptors.shutdown();
+        assertThat(acceptors.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        DistributionSummary summary = meterRegistry.find("tms.booking.retries").summary();
+        long totalRetries = summary == null ? 0 : (long) summary.totalAmount();
+        return new Run(loadIds, booked.get(), failed.get(), totalRetries, millis);
+    }
+
+    private record Run(List<UUID> loadIds, int booked, int failed, long retries, long millis) {
+
+        double perSecond() {
+            return booked * 1000.0 / Math.max(1, millis);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports stream rows without touching the second-level cache.
+ */
+class ExportServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Test
+    void loadExportDoesNotFillTheSecondLevelCache() {
+        Instant since = Instant.now().minusSeconds(1);
+        UUID first = newLoad(1);
+        UUID second = newLoad(1);
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.export(ExportService.ExportType.LOADS, since, false, out);
+
+        assertThat(written).isGreaterThanOrEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains(first.toString(), second.toString());
+        assertThat(statistics.getSecondLevelCachePutCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isZero();
+    }
+}
@@ -0,0 +1,113 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.entity.IdempotencyRecord;
+import com.cargopro.tms.entity.Load;
+import com.cargopro.tms.exception.IdempotencyKeyReusedException;
+import com.cargopro.tms.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Idempotency-Key replays are bound to the request body they were first used with.
+ */
+class IdempotencyServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void repeatWithTheSameBodyIsReplayed() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<String> first = idempotencyService.execute("test", key, Map.of("rate", 100), String.class,
+                () -> created("run " + runs.incrementAndGet()));
+        ResponseEntity<String> repeat = idempotencyService.execute("test", key, Map.of("rate", 100), String.class,
+                () -> created("run " + runs.incrementAndGet()));
+
+        assertThat(runs).hasValue(1);
+        assertThat(repeat.getBody()).isEqualTo(first.getBody());
+        assertThat(repeat.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void repeatWithADifferentBodyIsRejected() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute("test", key, Map.of("rate", 100), String.class, () -> created("first"));
+
+        assertThatThrownBy(() -> idempotencyService.execute("test", key, Map.of("rate", 200), String.class,
+                () -> created("second")))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void anotherInstanceChecksTheStoredHash() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute("test", key, Map.of("rate", 100), String.class, () -> created("first"));
+        IdempotencyService otherInstance = new IdempotencyService(idempotencyRecordRepository, objectMapper,
+                100, Duration.ofHours(1), 1000);
+
+        ResponseEntity<String> replayed = otherInstance.execute("test", key, Map.of("rate", 100), String.class,
+                () -> created("second"));
+
+        assertThat(replayed.getBody()).isEqualTo("first");
+        assertThatThrownBy(() -> otherInstance.execute("test", key, Map.of("rate", 200), String.class,
+                () -> created("third")))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void insertKeepsALiveRecordAndReplacesAnExpiredOne() {
+        String key = "test:" + UUID.randomUUID();
+        Instant now = Instant.now();
+        Timestamp expiredBefore = Timestamp.from(now.minus(Duration.ofHours(1)));
+
+        assertThat(idempotencyRecordRepository.insertIfAbsent(key, "a", 201, "\"first\"",
+                Timestamp.from(now.minus(Duration.ofHours(2))), expiredBefore)).isEqualTo(1);
+        assertThat(idempotencyRecordRepository.insertIfAbsent(key, "b", 201, "\"second\"",
+                Timestamp.from(now), expiredBefore)).isEqualTo(1);
+        assertThat(idempotencyRecordRepository.insertIfAbsent(key, "c", 201, "\"third\"",
+                Timestamp.from(now), expiredBefore)).isZero();
+        assertThat(idempotencyRecordRepository.findById(key)).get()
+                .extracting(IdempotencyRecord::getRequestHash).isEqualTo("b");
+    }
+
+    @Test
+    void storingAResponseKeepsTheSecondLevelCache() {
+        UUID loadId = newLoad(1);
+        loadService.getLoadById(loadId);
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        assertThat(sessionFactory.getCache().containsEntity(Load.class, loadId)).isTrue();
+
+        idempotencyService.execute("test", UUID.randomUUID().toString(), Map.of("rate", 100), String.class,
+                () -> created("first"));
+
+        assertThat(sessionFactory.getCache().containsEntity(Load.class, loadId)).isTrue();
+    }
+
+    private static ResponseEntity<String> created(String body) {
+        return new ResponseEntity<>(body, HttpStatus.CREATED);
+    }
+}
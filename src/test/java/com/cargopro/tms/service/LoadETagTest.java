@@ -0,0 +1,65 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.dto.LoadWithBidsResponse;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The load's ETag changes with every change to its bids and is read with the load in one statement.
+ */
+class LoadETagTest extends PostgresIntegrationTest {
+
+    @Test
+    void tagChangesWhenABidIsSubmittedOrRejected() {
+        UUID loadId = newLoad(3);
+        String posted = eTag(loadId);
+
+        UUID bidId = newBid(loadId, newTransporter(4, 5), 1000, 1);
+        String bidSubmitted = eTag(loadId);
+        bidService.rejectBid(bidId);
+        String bidRejected = eTag(loadId);
+
+        assertThat(posted).isNotEqualTo(bidSubmitted);
+        assertThat(bidSubmitted).isNotEqualTo(bidRejected);
+    }
+
+    @Test
+    void tagChangesWhenABidIsRescored() throws InterruptedException {
+        UUID transporterId = newTransporter(2, 5);
+        UUID loadId = newLoad(3);
+        newBid(loadId, transporterId, 1000, 1);
+        String before = eTag(loadId);
+
+        transporterService.updateRating(transporterId, 5);
+
+        for (int i = 0; i < 100 && eTag(loadId).equals(before); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(eTag(loadId)).isNotEqualTo(before);
+    }
+
+    @Test
+    void loadWithBidsIsCheckedAgainstTheTagInOneStatement() {
+        UUID loadId = newLoad(3);
+        newBid(loadId, newTransporter(4, 5), 1000, 1);
+        String tag = eTag(loadId);
+
+        AtomicReference<Optional<LoadWithBidsResponse>> result = new AtomicReference<>();
+        long statements = countStatements(() -> result.set(loadService.getLoadWithBidsIfModified(loadId, null, tag::equals)));
+
+        assertThat(result.get()).isEmpty();
+        assertThat(statements).isEqualTo(1);
+        assertThat(loadService.getLoadWithBidsIfModified(loadId, null, "stale"::equals)).isPresent();
+    }
+
+    private String eTag(UUID loadId) {
+        return loadService.getLoadETag(loadId).orElseThrow();
+    }
+}
@@ -0,0 +1,48 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.dto.LoadImportError;
+import com.cargopro.tms.dto.LoadImportResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A chunk that fails to insert is retried row by row, so only the failing rows are rejected.
+ */
+class LoadImportServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private LoadImportService loadImportService;
+
+    @Test
+    void failedChunkReportsOnlyTheRowsThatCannotBeInserted() {
+        String shipperId = "shipper-" + UUID.randomUUID();
+        // Passes validation but does not fit the product_type column.
+        String tooLong = "x".repeat(300);
+        String file = "shipperId,loadingCity,unloadingCity,loadingDate,productType,weight,weightUnit,truckType,numOfTrucks\n"
+                + row(shipperId, "Steel") + "\n"
+                + row(shipperId, tooLong) + "\n"
+                + row(shipperId, "Cement") + "\n";
+
+        LoadImportResponse response = loadImportService.importLoads(
+                new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)), LoadImportService.Format.CSV);
+
+        assertThat(response.rowsRead()).isEqualTo(3);
+        assertThat(response.imported()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(1);
+        assertThat(response.errors()).extracting(LoadImportError::line).containsExactly(3L);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM loads WHERE shipper_id = ?", Long.class, shipperId))
+                .isEqualTo(2);
+    }
+
+    private static String row(String shipperId, String productType) {
+        return shipperId + ",Pune,Delhi,2030-01-01T00:00:00Z," + productType + ",1000,KG," + TRUCK_TYPE + ",1";
+    }
+}
@@ -0,0 +1,62 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.dto.BidResponse;
+import com.cargopro.tms.dto.LoadWithBidsResponse;
+import com.cargopro.tms.exception.ResourceNotFoundException;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * GET /load/{loadId} returns the load with its PENDING bids in one query, with or without a bid limit.
+ */
+class LoadWithBidsTest extends PostgresIntegrationTest {
+
+    @Test
+    void returnsEveryPendingBidWithoutALimit() {
+        UUID loadId = newLoad(5);
+        List<UUID> bidIds = List.of(
+                newBid(loadId, newTransporter(4, 5), 1000, 1),
+                newBid(loadId, newTransporter(4, 5), 1100, 1),
+                newBid(loadId, newTransporter(4, 5), 1200, 1));
+
+        LoadWithBidsResponse response = loadService.getLoadWithBids(loadId, null);
+
+        assertThat(response.load().loadId()).isEqualTo(loadId);
+        assertThat(response.bids()).extracting(BidResponse::bidId).containsExactlyElementsOf(bidIds);
+    }
+
+    @Test
+    void returnsTheOldestBidsUpToTheLimit() {
+        UUID loadId = newLoad(5);
+        UUID first = newBid(loadId, newTransporter(4, 5), 1000, 1);
+        UUID second = newBid(loadId, newTransporter(4, 5), 1100, 1);
+        newBid(loadId, newTransporter(4, 5), 1200, 1);
+
+        LoadWithBidsResponse response = loadService.getLoadWithBids(loadId, 2);
+
+        assertThat(response.bids()).extracting(BidResponse::bidId).containsExactly(first, second);
+    }
+
+    @Test
+    void returnsTheLoadWithNoBids() {
+        UUID loadId = newLoad(1);
+
+        LoadWithBidsResponse response = loadService.getLoadWithBids(loadId, null);
+
+        assertThat(response.load().loadId()).isEqualTo(loadId);
+        assertThat(response.bids()).isEmpty();
+    }
+
+    @Test
+    void rejectsAnUnknownLoad() {
+        assertThatThrownBy(() -> loadService.getLoadWithBids(UUID.randomUUID(), 10))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
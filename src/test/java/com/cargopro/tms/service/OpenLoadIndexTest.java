@@ -0,0 +1,75 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.dto.LoadRequest;
+import com.cargopro.tms.entity.WeightUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The lane search index returns the earliest matches first and follows changes made by other instances.
+ */
+class OpenLoadIndexTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private OpenLoadIndex openLoadIndex;
+
+    @BeforeEach
+    void awaitWarmUp() throws InterruptedException {
+        LoadSearchCriteria any = new LoadSearchCriteria(null, null, null, null, null, null, null);
+        for (int i = 0; i < 100 && openLoadIndex.search(any, 1).isEmpty(); i++) {
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void searchReturnsTheEarliestLoadsOfThePostingSetUpToTheLimit() {
+        String city = "City " + UUID.randomUUID();
+        UUID third = newLoad(city, 30);
+        UUID first = newLoad(city, 10);
+        newLoad(city, 40);
+        UUID second = newLoad(city, 20);
+
+        assertThat(search(city, 3)).containsExactly(first, second, third);
+    }
+
+    @Test
+    void refreshDropsLoadsClosedAndAddsLoadsReopenedElsewhere() {
+        String city = "City " + UUID.randomUUID();
+        UUID closed = newLoad(city, 10);
+        UUID reopened = newLoad(city, 20);
+        loadService.cancelLoad(reopened);
+        assertThat(search(city, 10)).containsExactly(closed);
+
+        // Another instance cancels one load and reopens the other; this instance only sees the rows.
+        jdbcTemplate.update("UPDATE loads SET status = 'CANCELLED', version = version + 1 WHERE load_id = ?", closed);
+        jdbcTemplate.update("UPDATE loads SET status = 'OPEN_FOR_BIDS', version = version + 1 WHERE load_id = ?", reopened);
+        openLoadIndex.refresh();
+
+        assertThat(search(city, 10)).containsExactly(reopened);
+    }
+
+    private UUID newLoad(String loadingCity, int daysAhead) {
+        return loadService.createLoad(new LoadRequest("shipper-" + UUID.randomUUID(), loadingCity, "Delhi",
+                Timestamp.from(Instant.now().plus(daysAhead, ChronoUnit.DAYS)), "Steel", 1000, WeightUnit.KG,
+                TRUCK_TYPE, 1)).loadId();
+    }
+
+    private List<UUID> search(String loadingCity, int limit) {
+        return openLoadIndex.search(new LoadSearchCriteria(loadingCity, null, null, null, null, null, null), limit)
+                .orElseThrow()
+                .stream()
+                .map(OpenLoadIndex.IndexedLoad::loadId)
+                .toList();
+    }
+}
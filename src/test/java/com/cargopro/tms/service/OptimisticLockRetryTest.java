@@ -0,0 +1,56 @@
+package com.cargopro.tms.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Optimistic lock conflicts are retried with backoff, but not after the thread is interrupted.
+ */
+class OptimisticLockRetryTest {
+
+    private final OptimisticLockRetry retry = new OptimisticLockRetry(5, 1, 1, new SimpleMeterRegistry());
+
+    @Test
+    void retriesUntilAnAttemptSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute("test", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void stopsRetryingOnceInterrupted() {
+        AtomicInteger attempts = new AtomicInteger();
+        ObjectOptimisticLockingFailureException conflict = conflict();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> retry.execute("test", () -> {
+                attempts.incrementAndGet();
+                throw conflict;
+            })).isSameAs(conflict);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+        assertThat(attempts).hasValue(1);
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("Load", "conflict");
+    }
+}
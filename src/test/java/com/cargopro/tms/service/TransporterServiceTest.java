@@ -0,0 +1,74 @@
+package com.cargopro.tms.service;
+
+import com.cargopro.tms.PostgresIntegrationTest;
+import com.cargopro.tms.dto.TransporterRequest;
+import com.cargopro.tms.entity.TransporterTruckCapacity;
+import com.cargopro.tms.exception.DuplicateTruckTypeException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Truck capacities hold one record per truck type, ignoring case, so booking changes exactly one row.
+ */
+class TransporterServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void registrationRejectsATruckTypeListedTwiceIgnoringCase() {
+        TransporterRequest request = new TransporterRequest("Transporter " + UUID.randomUUID(), 4.0,
+                List.of(capacity("Flatbed", 2), capacity("FLATBED", 3)));
+
+        assertThatThrownBy(() -> transporterService.registerTransporter(request))
+                .isInstanceOf(DuplicateTruckTypeException.class);
+    }
+
+    @Test
+    void capacityUpdateRejectsATruckTypeListedTwiceIgnoringCase() {
+        UUID transporterId = newTransporter(4, 5);
+
+        assertThatThrownBy(() -> transporterService.updateTruckCapacity(transporterId,
+                List.of(capacity("flatbed", 2), capacity("Flatbed", 3))))
+                .isInstanceOf(DuplicateTruckTypeException.class);
+    }
+
+    @Test
+    void databaseRejectsASecondRecordOfTheSameTruckType() {
+        UUID transporterId = newTransporter(4, 5);
+
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO transporter_truck_capacities (id, transporter_id, truck_type, count) VALUES (?, ?, ?, ?)",
+                UUID.randomUUID(), transporterId, "FLATBED", 7))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void bookingDeductsFromTheRecordWhateverItsCase() {
+        UUID transporterId = newTransporter(4, 5);
+        transporterService.updateTruckCapacity(transporterId, new ArrayList<>(List.of(capacity("flatbed", 4))));
+        UUID loadId = newLoad(3);
+
+        bookingService.acceptBidAndCreateBooking(newBid(loadId, transporterId, 1000, 3), 3, 1000);
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT count FROM transporter_truck_capacities WHERE transporter_id = ?", Integer.class, transporterId))
+                .containsExactly(1);
+    }
+
+    private static TransporterTruckCapacity capacity(String truckType, int count) {
+        TransporterTruckCapacity capacity = new TransporterTruckCapacity();
+        capacity.setTruckType(truckType);
+        capacity.setCount(count);
+        return capacity;
+    }
+}